@@ -3,21 +3,36 @@ package com.github.kriaktus.restaurantvoting.config;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.h2.tools.Server;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.github.kriaktus.restaurantvoting.util.JsonUtil;
+import com.github.kriaktus.restaurantvoting.web.restaurant.ActualRestaurantLoader;
+import com.github.kriaktus.restaurantvoting.web.restaurant.ActualRestaurants;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantDayKey;
+import com.github.kriaktus.restaurantvoting.web.vote.DailyResults;
 
 import java.sql.SQLException;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
 
 @Configuration
 @Slf4j
 @EnableCaching
+@EnableScheduling
 public class AppConfig {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
@@ -33,11 +48,56 @@ public class AppConfig {
         return new Hibernate5Module();
     }
 
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(MeterRegistry meterRegistry) {
+        return cacheManager -> cacheManager.registerCustomCache("user",
+                recordStats(Caffeine.newBuilder().expireAfterAccess(Duration.ofSeconds(60)), "user", meterRegistry).build());
+    }
+
+    //  closed days results never change: no expiration, evicted by DailyResults on restaurant changes
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> dailyResultCacheCustomizer(MeterRegistry meterRegistry) {
+        return cacheManager -> cacheManager.registerCustomCache(DailyResults.CACHE_NAME,
+                recordStats(Caffeine.newBuilder().maximumSize(1000), DailyResults.CACHE_NAME, meterRegistry).build());
+    }
+
+    //  hot entries are reloaded in background ahead of expiry, an empty reload drops the entry
+    //  lazy loader: repositories depend on the cache manager
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> restaurantCacheCustomizer(@Lazy ActualRestaurantLoader loader, MeterRegistry meterRegistry, Ticker ticker,
+                                                                          @Value("${app.restaurant.cache.refresh-seconds:30}") long refreshSeconds,
+                                                                          @Value("${app.restaurant.cache.expire-seconds:120}") long expireSeconds,
+                                                                          @Value("${app.restaurant.cache.max-size:10000}") long maxSize) {
+        Supplier<Caffeine<Object, Object>> builder = () -> Caffeine.newBuilder()
+                .ticker(ticker)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireSeconds))
+                .maximumSize(maxSize);
+        return cacheManager -> {
+            cacheManager.registerCustomCache(ActualRestaurants.RESTAURANT_TO_CACHE,
+                    recordStats(builder.get(), ActualRestaurants.RESTAURANT_TO_CACHE, meterRegistry)
+                            .build(key -> loader.loadActive((RestaurantDayKey) key)));
+            cacheManager.registerCustomCache(ActualRestaurants.RESTAURANT_WITH_MENU_TO_CACHE,
+                    recordStats(builder.get(), ActualRestaurants.RESTAURANT_WITH_MENU_TO_CACHE, meterRegistry)
+                            .build(key -> loader.loadWithMenu((RestaurantDayKey) key)));
+        };
+    }
+
+    private static Caffeine<Object, Object> recordStats(Caffeine<Object, Object> builder, String cacheName, MeterRegistry meterRegistry) {
+        return builder.recordStats(() -> new MeteredStatsCounter(meterRegistry, cacheName));
+    }
+
     @Bean
     public Clock clock() {
         return Clock.systemDefaultZone();
     }
 
+    //  time source of restaurant caches refresh and expiry
+    @Bean
+    public Ticker ticker() {
+        return Ticker.systemTicker();
+    }
+
     @Autowired
     public void storeObjectMapper(ObjectMapper objectMapper) {
         JsonUtil.setMapper(objectMapper);
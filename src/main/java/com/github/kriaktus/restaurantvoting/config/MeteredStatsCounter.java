@@ -0,0 +1,71 @@
+package com.github.kriaktus.restaurantvoting.config;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine statistics of a named cache, also published as {@code cache.load.latency} histogram
+ * and {@code cache.hit.ratio} gauge.
+ * <p>
+ * Hits, misses, evictions and estimated size of every cache are published by Spring Boot cache metrics.
+ */
+public class MeteredStatsCounter implements StatsCounter {
+    private final StatsCounter delegate = new ConcurrentStatsCounter();
+    private final Timer loadLatency;
+
+    public MeteredStatsCounter(MeterRegistry meterRegistry, String cacheName) {
+        this.loadLatency = Timer.builder("cache.load.latency")
+                .description("Cache entries load latency, successful and failed")
+                .tag("cache", cacheName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", delegate, counter -> counter.snapshot().hitRate())
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordHits(int count) {
+        delegate.recordHits(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        delegate.recordMisses(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        delegate.recordLoadSuccess(loadTime);
+        loadLatency.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        delegate.recordLoadFailure(loadTime);
+        loadLatency.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void recordEviction() {
+        delegate.recordEviction();
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        delegate.recordEviction(weight, cause);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return delegate.snapshot();
+    }
+}
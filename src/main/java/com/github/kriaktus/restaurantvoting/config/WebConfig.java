@@ -0,0 +1,35 @@
+package com.github.kriaktus.restaurantvoting.config;
+
+import com.github.kriaktus.restaurantvoting.web.admission.AdmissionFilter;
+import com.github.kriaktus.restaurantvoting.web.admission.AdmissionInterceptor;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantConditionalGetInterceptor;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@AllArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+    private final RestaurantConditionalGetInterceptor restaurantConditionalGetInterceptor;
+
+    // before springSecurityFilterChain: overload is shed before authentication
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilterRegistration(AdmissionFilter admissionFilter) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(admissionFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/votes", "/api/votes/today");
+        registry.addInterceptor(restaurantConditionalGetInterceptor).addPathPatterns(RestaurantConditionalGetInterceptor.PATH_PATTERNS);
+    }
+}
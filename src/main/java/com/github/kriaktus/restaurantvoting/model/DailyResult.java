@@ -0,0 +1,39 @@
+package com.github.kriaktus.restaurantvoting.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Final voices count of a restaurant for a closed voting day
+ */
+@Entity
+@Table(name = "daily_result")
+@IdClass(DailyResult.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@ToString
+public class DailyResult {
+
+    @Id
+    @Column(name = "voting_date", nullable = false, updatable = false)
+    private LocalDate votingDate;
+
+    @Id
+    @Column(name = "restaurant_id", nullable = false, updatable = false)
+    private Integer restaurantId;
+
+    @Column(name = "votes", nullable = false, updatable = false)
+    private long votes;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate votingDate;
+        private Integer restaurantId;
+    }
+}
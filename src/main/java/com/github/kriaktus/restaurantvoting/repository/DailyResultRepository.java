@@ -0,0 +1,32 @@
+package com.github.kriaktus.restaurantvoting.repository;
+
+import com.github.kriaktus.restaurantvoting.model.DailyResult;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface DailyResultRepository extends Repository<DailyResult, DailyResult.Key> {
+
+    @Query("SELECT new com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo(r.restaurantId, r.votes) FROM DailyResult r " +
+            "WHERE r.votingDate =:date ORDER BY r.votes DESC, r.restaurantId")
+    List<RestaurantVotesTo> getByDate(@Param("date") LocalDate date);
+
+    boolean existsByVotingDate(LocalDate votingDate);
+
+    //  MERGE keeps concurrent closes of the same day idempotent. A day may be already archived
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO daily_result (voting_date, restaurant_id, votes) KEY (voting_date, restaurant_id) " +
+            "SELECT voting_date, restaurant_id, COUNT(*) FROM (" +
+            "SELECT voting_date, restaurant_id FROM vote WHERE voting_date=:date " +
+            "UNION ALL SELECT voting_date, restaurant_id FROM vote_archive WHERE voting_date=:date) " +
+            "GROUP BY voting_date, restaurant_id", nativeQuery = true)
+    int saveFromVotes(@Param("date") LocalDate date);
+}
@@ -1,19 +1,29 @@
 package com.github.kriaktus.restaurantvoting.repository;
 
 import com.github.kriaktus.restaurantvoting.model.MenuItem;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
 public interface MenuItemRepository extends BaseRepository<MenuItem> {
 
-    @Query(value = "SELECT mi FROM MenuItem mi WHERE mi.restaurantId=:restaurantId ")
-    HashSet<MenuItem> findAllByRestaurantId(@Param("restaurantId") int restaurantId);
+    //  a primary key lookup per id, however long the restaurant history is
+    @Query(value = "SELECT COUNT(mi) FROM MenuItem mi WHERE mi.restaurantId=:restaurantId AND mi.id IN :ids")
+    long countByRestaurantIdAndIdIn(@Param("restaurantId") int restaurantId, @Param("ids") Collection<Integer> ids);
 
-    @Query(value = "SELECT mi FROM Menu m JOIN m.items as mi WHERE m.menuDate = current_date AND m.restaurantId=:restaurantId AND mi.id=:id")
-    Optional<MenuItem> findFromActiveMenuByIdAndRestaurantId(@Param("id") int id, @Param("restaurantId") int restaurantId);
+    boolean existsByIdAndRestaurantId(int id, int restaurantId);
+
+    //  the date is the application's one: the database current_date may be in another time zone
+    @Query(value = "SELECT mi FROM Menu m JOIN m.items as mi WHERE m.menuDate = :date AND m.restaurantId=:restaurantId AND mi.id=:id")
+    Optional<MenuItem> findFromActiveMenuByIdAndRestaurantId(@Param("id") int id, @Param("restaurantId") int restaurantId, @Param("date") LocalDate date);
+
+    @Query(value = "SELECT new com.github.kriaktus.restaurantvoting.to.MenuItemTo(mi.id, mi.name, mi.price) " +
+            "FROM Menu m JOIN m.items as mi WHERE m.menuDate = :date AND m.restaurantId=:restaurantId AND mi.id=:id")
+    Optional<MenuItemTo> findToFromActiveMenuByIdAndRestaurantId(@Param("id") int id, @Param("restaurantId") int restaurantId, @Param("date") LocalDate date);
 }
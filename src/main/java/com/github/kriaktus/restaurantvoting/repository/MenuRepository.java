@@ -4,11 +4,18 @@ import com.github.kriaktus.restaurantvoting.model.Menu;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface MenuRepository extends BaseRepository<Menu> {
 
@@ -19,6 +26,15 @@ public interface MenuRepository extends BaseRepository<Menu> {
     @Query(value = "SELECT m FROM Menu m WHERE m.menuDate=:date AND m.restaurantId=:restaurantId")
     Optional<Menu> findByDateAndRestaurantIdWithoutItems(@Param("date") LocalDate date, @Param("restaurantId") int restaurantId);
 
+    @Query(value = "SELECT m.restaurantId FROM Menu m WHERE m.menuDate=:date AND m.restaurantId IN :restaurantIds")
+    List<Integer> findRestaurantIdsByDate(@Param("date") LocalDate date, @Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    //  scalar rows (menu id, date, item id, name, price) ordered by date, nothing is kept in the persistence context
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT m.id, m.menuDate, mi.id, mi.name, mi.price FROM Menu m LEFT JOIN m.items AS mi " +
+            "WHERE m.restaurantId=:restaurantId AND m.menuDate BETWEEN :from AND :to ORDER BY m.menuDate, mi.id")
+    Stream<Object[]> streamHistory(@Param("restaurantId") int restaurantId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
     @Query(value = "DELETE FROM Menu m WHERE m.menuDate=:date AND m.restaurantId=:restaurantId")
     @Modifying
     @Transactional
@@ -1,32 +1,25 @@
 package com.github.kriaktus.restaurantvoting.repository;
 
 import com.github.kriaktus.restaurantvoting.model.Restaurant;
-import org.springframework.data.jpa.repository.EntityGraph;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
 public interface RestaurantRepository extends BaseRepository<Restaurant> {
 
-    @EntityGraph(attributePaths = {"menu"})
-    @Query(value = "SELECT r FROM Restaurant r JOIN r.menu AS m WHERE r.id=:id AND m.menuDate = current_date")
-    Optional<Restaurant> findActiveById(@Param("id") int id);
-
-    @EntityGraph(attributePaths = {"menu"})
-    @Query(value = "SELECT r FROM Restaurant r JOIN r.menu AS m WHERE m.menuDate = current_date")
-    List<Restaurant> findAllActive();
-
-    @EntityGraph(attributePaths = {"menu", "menu.items"})
-    @Query(value = "SELECT r FROM Restaurant r JOIN r.menu AS m JOIN m.items AS mi WHERE r.id=:id AND m.menuDate = current_date")
-    Optional<Restaurant> findByIdWithActualMenu(@Param("id") int id);
-
-    @EntityGraph(attributePaths = {"menu", "menu.items"})
-    @Query(value = "SELECT r FROM Restaurant r JOIN r.menu AS m JOIN m.items AS mi WHERE m.menuDate = current_date")
-    List<Restaurant> findAllWithActualMenu();
+    @Query(value = "SELECT new com.github.kriaktus.restaurantvoting.to.RestaurantTo(r.id, r.name) " +
+            "FROM Restaurant r JOIN r.menu AS m WHERE r.id=:id AND m.menuDate = :date")
+    Optional<RestaurantTo> findActiveToById(@Param("id") int id, @Param("date") LocalDate date);
 
     Optional<Restaurant> getRestaurantByName(String name);
+
+    @Query(value = "SELECT r.id FROM Restaurant r WHERE r.id IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
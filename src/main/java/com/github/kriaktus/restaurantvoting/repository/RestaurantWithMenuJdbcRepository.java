@@ -0,0 +1,110 @@
+package com.github.kriaktus.restaurantvoting.repository;
+
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Reads restaurants with their menu for a date in two flat queries: restaurants with the menu, then items of those menus.
+ * <p>
+ * A single joined query repeats the restaurant and menu columns for every item and makes the ORM de-duplicate them,
+ * here every row is read once. Items are stitched to menus by a sorted {@code int[]} of menu ids, without boxing.
+ */
+@Repository
+@AllArgsConstructor
+public class RestaurantWithMenuJdbcRepository {
+    // keeps IN lists within the limits of common databases
+    static final int IN_CHUNK_SIZE = 1000;
+
+    private static final String RESTAURANTS = "SELECT r.id, r.name, m.id FROM restaurant r JOIN menu m ON m.restaurant_id = r.id " +
+            "WHERE m.menu_date = ?";
+    private static final String ITEMS = "SELECT mmi.menu_id, mi.id, mi.name, mi.price FROM menu_menu_item mmi " +
+            "JOIN menu_item mi ON mi.id = mmi.menu_item_id WHERE mmi.menu_id IN (%s) ORDER BY mi.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return restaurants having a menu on the date, ordered by menu id; a menu may have no items
+     */
+    public List<RestaurantWithMenuTo> findAll(LocalDate date) {
+        return read(date, RESTAURANTS + " ORDER BY m.id", date);
+    }
+
+    public Optional<RestaurantWithMenuTo> find(int restaurantId, LocalDate date) {
+        return read(date, RESTAURANTS + " AND r.id = ?", date, restaurantId).stream().findFirst();
+    }
+
+    /**
+     * @return restaurants of the given ones having a menu on the date
+     */
+    public List<RestaurantWithMenuTo> findAll(Collection<Integer> restaurantIds, LocalDate date) {
+        int[] ids = restaurantIds.stream().mapToInt(Integer::intValue).toArray();
+        List<RestaurantWithMenuTo> result = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += IN_CHUNK_SIZE) {
+            result.addAll(read(date, RESTAURANTS + " AND r.id IN (" + inList(ids, from) + ") ORDER BY m.id", date));
+        }
+        return result;
+    }
+
+    private List<RestaurantWithMenuTo> read(LocalDate date, String sql, Object... args) {
+        List<RestaurantTo> restaurants = new ArrayList<>();
+        IntArray menuIds = new IntArray();
+        jdbcTemplate.query(sql, rs -> {
+            restaurants.add(new RestaurantTo(rs.getInt(1), rs.getString(2)));
+            menuIds.add(rs.getInt(3));
+        }, args);
+        if (restaurants.isEmpty()) return List.of();
+
+        int[] keys = menuIds.toArray();
+        List<List<MenuItemTo>> items = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            items.add(new ArrayList<>());
+        }
+        for (int from = 0; from < keys.length; from += IN_CHUNK_SIZE) {
+            jdbcTemplate.query(String.format(ITEMS, inList(keys, from)), rs -> {
+                items.get(Arrays.binarySearch(keys, rs.getInt(1)))
+                        .add(new MenuItemTo(rs.getInt(2), rs.getString(3), rs.getInt(4)));
+            });
+        }
+
+        List<RestaurantWithMenuTo> result = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            RestaurantTo restaurant = restaurants.get(i);
+            result.add(new RestaurantWithMenuTo(restaurant.getId(), restaurant.getName(), new MenuTo(keys[i], date, List.copyOf(items.get(i)))));
+        }
+        return result;
+    }
+
+    // ids are inlined as literals: H2 doesn't look up the index for an IN list of parameters
+    private static String inList(int[] ids, int from) {
+        return Arrays.stream(ids, from, Math.min(from + IN_CHUNK_SIZE, ids.length))
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(","));
+    }
+
+    private static class IntArray {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
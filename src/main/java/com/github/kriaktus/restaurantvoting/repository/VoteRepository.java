@@ -1,11 +1,15 @@
 package com.github.kriaktus.restaurantvoting.repository;
 
 import com.github.kriaktus.restaurantvoting.model.Vote;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
@@ -13,4 +17,53 @@ public interface VoteRepository extends BaseRepository<Vote> {
 
     @Query("SELECT v FROM Vote v WHERE v.userId =:userId AND v.votingDate =:date")
     Optional<Vote> getByUserIdAndDate(@Param("userId") int userId, @Param("date") LocalDate date);
-}
+
+    @Query(value = "SELECT * FROM vote_archive WHERE user_id=:userId AND voting_date=:date", nativeQuery = true)
+    Optional<Vote> getArchivedByUserIdAndDate(@Param("userId") int userId, @Param("date") LocalDate date);
+
+    //  past days are in VOTE until archived. Today is the caller's one, as the archive is filled by its clock
+    default Optional<Vote> findByUserIdAndDate(int userId, LocalDate date, LocalDate today) {
+        Optional<Vote> vote = getByUserIdAndDate(userId, date);
+        return vote.isPresent() || !date.isBefore(today) ? vote : getArchivedByUserIdAndDate(userId, date);
+    }
+
+    //  Keyset page, newest first: (user_id, voting_date) is unique, so voting date alone is the cursor.
+    //  Both tables are range-scanned by their unique (user_id, voting_date) index
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT id, user_id, voting_date, restaurant_id FROM vote WHERE user_id=:userId AND voting_date<:before ORDER BY voting_date DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT id, user_id, voting_date, restaurant_id FROM vote_archive WHERE user_id=:userId AND voting_date<:before ORDER BY voting_date DESC LIMIT :limit)) " +
+            "ORDER BY voting_date DESC LIMIT :limit", nativeQuery = true)
+    List<Vote> getHistoryPage(@Param("userId") int userId, @Param("before") LocalDate before, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO vote_archive (id, user_id, voting_date, restaurant_id) " +
+            "SELECT id, user_id, voting_date, restaurant_id FROM vote WHERE voting_date=:date", nativeQuery = true)
+    int copyToArchive(@Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.votingDate=:date")
+    int deleteByDate(@Param("date") LocalDate date);
+
+    @Query("SELECT DISTINCT v.votingDate FROM Vote v WHERE v.votingDate <:date ORDER BY v.votingDate")
+    List<LocalDate> getDatesBefore(@Param("date") LocalDate date);
+
+    //  Single statement: the unique (user_id, voting_date) constraint rejects a second voice, empty result if restaurant not found
+    @Transactional
+    @Query(value = "SELECT id FROM FINAL TABLE (INSERT INTO vote (user_id, voting_date, restaurant_id) SELECT :userId, :date, id FROM restaurant WHERE id=:restaurantId)", nativeQuery = true)
+    Optional<Integer> insert(@Param("userId") int userId, @Param("date") LocalDate date, @Param("restaurantId") int restaurantId);
+
+    //  Single statement: returns previous restaurant id, empty result if there is no voice or restaurant not found.
+    //  Restaurant is checked in WHERE: H2 silently skips an OLD TABLE update violating a constraint
+    @Transactional
+    @Query(value = "SELECT restaurant_id FROM OLD TABLE (UPDATE vote SET restaurant_id=:restaurantId WHERE user_id=:userId AND voting_date=:date AND EXISTS (SELECT 1 FROM restaurant WHERE id=:restaurantId))", nativeQuery = true)
+    Optional<Integer> updateRestaurant(@Param("userId") int userId, @Param("date") LocalDate date, @Param("restaurantId") int restaurantId);
+
+    @Query("SELECT new com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo(v.restaurant.id, COUNT(v)) FROM Vote v WHERE v.votingDate =:date GROUP BY v.restaurant.id")
+    List<RestaurantVotesTo> countByDate(@Param("date") LocalDate date);
+
+    @Query("SELECT new com.github.kriaktus.restaurantvoting.to.UserVoteTo(v.userId, v.restaurant.id) FROM Vote v WHERE v.votingDate =:date")
+    List<UserVoteTo> getUserVotesByDate(@Param("date") LocalDate date);
+}
\ No newline at end of file
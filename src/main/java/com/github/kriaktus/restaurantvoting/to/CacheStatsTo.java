@@ -0,0 +1,15 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.Value;
+
+@Value
+public class CacheStatsTo {
+    String name;
+    long estimatedSize;
+    long hitCount;
+    long missCount;
+    double hitRate;
+    long evictionCount;
+    long loadCount;
+    double averageLoadMillis;
+}
@@ -0,0 +1,18 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.Value;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+public class DayMenuTo {
+    @NotNull
+    LocalDate menuDate;
+    @NotEmpty
+    @Valid
+    List<RestaurantMenuTo> menus;
+}
@@ -0,0 +1,19 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+
+@Value
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class MenuItemWithRestaurantTo extends NamedTo {
+    Integer price;
+    RestaurantTo restaurantTo;
+
+    public MenuItemWithRestaurantTo(Integer id, String name, Integer price, RestaurantTo restaurantTo) {
+        super(id, name);
+        this.price = price;
+        this.restaurantTo = restaurantTo;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Value
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RestaurantMenuTo extends BaseTo {
+    @NotNull
+    Integer restaurantId;
+    @NotNull
+    @Valid
+    List<MenuItemTo> items;
+
+    public RestaurantMenuTo(Integer id, Integer restaurantId, List<MenuItemTo> items) {
+        super(id);
+        this.restaurantId = restaurantId;
+        this.items = items;
+    }
+}
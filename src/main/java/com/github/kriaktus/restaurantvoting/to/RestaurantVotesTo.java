@@ -0,0 +1,9 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.Value;
+
+@Value
+public class RestaurantVotesTo {
+    int restaurantId;
+    long votes;
+}
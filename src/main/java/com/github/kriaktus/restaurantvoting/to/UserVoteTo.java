@@ -0,0 +1,9 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.Value;
+
+@Value
+public class UserVoteTo {
+    int userId;
+    int restaurantId;
+}
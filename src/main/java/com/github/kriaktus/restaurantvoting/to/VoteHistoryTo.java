@@ -0,0 +1,12 @@
+package com.github.kriaktus.restaurantvoting.to;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class VoteHistoryTo {
+    List<VoteTo> votes;
+    // cursor of the next (older) page, null for the last page
+    String next;
+}
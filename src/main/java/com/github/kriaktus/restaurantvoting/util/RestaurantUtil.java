@@ -27,15 +27,17 @@ public class RestaurantUtil {
         return new RestaurantWithMenuTo(restaurant.getId(), restaurant.getName(), MenuUtil.toMenuTo(actualMenu));
     }
 
-    public static List<RestaurantTo> toRestaurantTo(Collection<Restaurant> restaurants) {
-        return restaurants.stream()
-                .map(RestaurantUtil::toRestaurantTo)
-                .toList();
+    public static RestaurantTo toRestaurantTo(RestaurantWithMenuTo restaurantWithMenuTo) {
+        return new RestaurantTo(restaurantWithMenuTo.getId(), restaurantWithMenuTo.getName());
     }
 
-    public static List<RestaurantWithMenuTo> toRestaurantWithMenuTo(Collection<Restaurant> restaurants) {
+    public static boolean hasMenuItems(RestaurantWithMenuTo restaurantWithMenuTo) {
+        return !restaurantWithMenuTo.menuTo.getItems().isEmpty();
+    }
+
+    public static List<RestaurantTo> toRestaurantTo(Collection<Restaurant> restaurants) {
         return restaurants.stream()
-                .map(RestaurantUtil::toRestaurantWithMenuTo)
+                .map(RestaurantUtil::toRestaurantTo)
                 .toList();
     }
 
@@ -13,4 +13,8 @@ public class VoteUtil {
     public static VoteTo toVoteTo(Vote vote) {
         return new VoteTo(vote.getId(), vote.getVotingDate(), vote.getRestaurant().getId());
     }
+
+    public static List<VoteTo> getTos(Collection<Vote> votes) {
+        return votes.stream().map(VoteUtil::toVoteTo).toList();
+    }
 }
\ No newline at end of file
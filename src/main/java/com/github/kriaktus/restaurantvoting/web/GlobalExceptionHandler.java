@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,7 +41,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     public static final String EXCEPTION_MENU_MENU_ITEM_HAS_ID = "Created menu must contain menu items without id";
     public static final String EXCEPTION_MENU_MENU_ITEM_HAS_SAME_ID = "Menu items has same id";
     public static final String EXCEPTION_MENU_MENU_ITEM_HAS_SAME_NAME = "Menu items has same name";
+    public static final String EXCEPTION_MENU_DUPLICATE_DATE = "Menu of the restaurant by this date already exist";
+    public static final String EXCEPTION_MENUS_HAS_SAME_RESTAURANT = "Menus has same restaurant";
     public static final String EXCEPTION_RESTAURANT_DUPLICATE_NAME = "Restaurant with same name already exist";
+    public static final String EXCEPTION_VOTE_ALREADY_EXIST = "Today's voice already exist";
+    public static final String EXCEPTION_IDEMPOTENCY_KEY_REUSED = "Idempotency-Key is already used for another request";
+    public static final String EXCEPTION_DATA_INTEGRITY = "Data conflicts with the stored one";
+
+    private static final Map<String, String> CONSTRAINTS_MAP = Map.of(
+            "users_unique_email_idx", EXCEPTION_USER_DUPLICATE_EMAIL,
+            "restaurants_unique_name", EXCEPTION_RESTAURANT_DUPLICATE_NAME,
+            "vote_unique_user_id_voting_date_constraint", EXCEPTION_VOTE_ALREADY_EXIST,
+            "menu_unique_restaurant_id_menu_date_constraint", EXCEPTION_MENU_DUPLICATE_DATE);
 
     private final ErrorAttributes errorAttributes;
 
@@ -62,7 +74,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @ExceptionHandler(AppException.class)
     public ResponseEntity<?> appException(WebRequest request, AppException ex) {
         log.error("ApplicationException: {}", ex.getMessage());
-        return createResponseEntity(getDefaultBody(request, ex.getOptions(), null), ex.getStatus());
+        return createResponseEntity(getDefaultBody(request, ex.getOptions(), null), ex.getResponseHeaders(), ex.getStatus());
     }
 
     @ExceptionHandler(EntityNotFoundException.class)
@@ -71,6 +83,20 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return createResponseEntity(getDefaultBody(request, ErrorAttributeOptions.of(MESSAGE), null), HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> conflict(WebRequest request, DataIntegrityViolationException ex) {
+        String rootMsg = ValidationUtil.getRootCause(ex).getMessage();
+        log.error("DataIntegrityViolationException: {}", rootMsg);
+        String lowerCaseMsg = rootMsg.toLowerCase();
+        String msg = CONSTRAINTS_MAP.entrySet().stream()
+                .filter(entry -> lowerCaseMsg.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findAny()
+                // the database message names tables and columns: it stays in the log
+                .orElse(EXCEPTION_DATA_INTEGRITY);
+        return createResponseEntity(getDefaultBody(request, ErrorAttributeOptions.of(MESSAGE), msg), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     private ResponseEntity<Object> handleBindingErrors(BindingResult result, WebRequest request) {
         String msg = result.getFieldErrors().stream()
                 .map(fe -> String.format("[%s] %s", fe.getField(), fe.getDefaultMessage()))
@@ -86,12 +112,16 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return body;
     }
 
-    @SuppressWarnings("unchecked")
     private <T> ResponseEntity<T> createResponseEntity(Map<String, Object> body, HttpStatus status) {
+        return createResponseEntity(body, HttpHeaders.EMPTY, status);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> createResponseEntity(Map<String, Object> body, HttpHeaders headers, HttpStatus status) {
         body.put("timestamp", ((Date) body.get("timestamp")).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().format(DATE_TIME_FORMATTER));
         body.put("status", status.value());
         body.put("error", status.getReasonPhrase());
-        return (ResponseEntity<T>) ResponseEntity.status(status).body(body);
+        return (ResponseEntity<T>) ResponseEntity.status(status).headers(headers).body(body);
     }
 
     @NonNull
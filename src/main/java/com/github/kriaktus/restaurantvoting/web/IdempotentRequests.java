@@ -0,0 +1,76 @@
+package com.github.kriaktus.restaurantvoting.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.kriaktus.restaurantvoting.error.IllegalRequestDataException;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_IDEMPOTENCY_KEY_REUSED;
+
+/**
+ * Responses of requests with {@value #HEADER} header, kept per user in a bounded expiring store.
+ * <p>
+ * A retry with the same key returns the stored response without executing the request again;
+ * a retry arriving while the original is in flight waits for its response.
+ * Failed requests are not stored, so they may be retried.
+ */
+@Component
+public class IdempotentRequests {
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Cache<String, Entry> entries;
+
+    public IdempotentRequests(@Value("${app.idempotency.max-size:100000}") long maxSize,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * @param key     {@value #HEADER} header value, request is executed as is if {@code null}
+     * @param request method and parameters: the same key with another request is rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, int userId, String request, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        String entryKey = userId + ":" + key;
+        Entry entry = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(entryKey, entry);
+        if (existing != null) {
+            if (!existing.request.equals(request)) {
+                throw new IllegalRequestDataException(EXCEPTION_IDEMPOTENCY_KEY_REUSED);
+            }
+            try {
+                return (T) existing.response.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            T response = action.get();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(entryKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final String request;
+        private final CompletableFuture<Object> response;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.kriaktus.restaurantvoting.web.admission;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global in-flight requests limit, AIMD-tuned by p99 latency of the last {@code window} requests:
+ * p99 above the target shrinks the limit by 10%, a saturated window under the target grows it by one.
+ */
+class AdaptiveConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetP99Nanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile long p99Nanos;
+
+    private final long[] samples;
+    private int sampleCount;
+    private boolean saturated;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetP99Millis, int window) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetP99Nanos = TimeUnit.MILLISECONDS.toNanos(targetP99Millis);
+        this.limit = initialLimit;
+        this.samples = new long[window];
+    }
+
+    /**
+     * @param share part of the limit available for the request priority
+     */
+    boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        for (; ; ) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        record(latencyNanos, current >= limit);
+    }
+
+    private synchronized void record(long latencyNanos, boolean atLimit) {
+        samples[sampleCount++] = latencyNanos;
+        saturated |= atLimit;
+        if (sampleCount == samples.length) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            p99Nanos = sorted[(int) (sorted.length * 0.99)];
+            if (p99Nanos > targetP99Nanos) {
+                limit = Math.max(minLimit, (int) (limit * 0.9));
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            sampleCount = 0;
+            saturated = false;
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getP99Millis() {
+        return p99Nanos / 1e6;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.kriaktus.restaurantvoting.web.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Global adaptive concurrency limit, runs before authentication: a rejected request costs no password hashing.
+ * Requests other than voices get only a share of the limit, so voting keeps priority before the deadline.
+ * An async request is released when its request thread returns.
+ */
+@Component
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+    static final String EXCEPTION_OVERLOADED = "Service is overloaded, retry later";
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final double nonVoteShare;
+    private final Counter overloadRejected;
+
+    public AdmissionFilter(MeterRegistry meterRegistry,
+                           @Value("${app.admission.limit.initial:100}") int initialLimit,
+                           @Value("${app.admission.limit.min:10}") int minLimit,
+                           @Value("${app.admission.limit.max:400}") int maxLimit,
+                           @Value("${app.admission.limit.target-p99-ms:300}") long targetP99Millis,
+                           @Value("${app.admission.limit.window:200}") int window,
+                           @Value("${app.admission.non-vote-share:0.5}") double nonVoteShare) {
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetP99Millis, window);
+        this.nonVoteShare = nonVoteShare;
+
+        Gauge.builder("admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Adaptive in-flight requests limit").register(meterRegistry);
+        Gauge.builder("admission.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Admitted requests in flight").register(meterRegistry);
+        Gauge.builder("admission.latency.p99", concurrencyLimit, AdaptiveConcurrencyLimit::getP99Millis)
+                .baseUnit("milliseconds").description("p99 latency of the last window").register(meterRegistry);
+        this.overloadRejected = meterRegistry.counter("admission.rejected", "reason", "overloaded");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!concurrencyLimit.tryAcquire(isVoteWrite(request) ? 1 : nonVoteShare)) {
+            overloadRejected.increment();
+            log.warn("Request {} {} rejected: {} in flight", request.getMethod(), request.getRequestURI(), concurrencyLimit.getInFlight());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), EXCEPTION_OVERLOADED);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * POST /api/votes and PUT /api/votes/today
+     */
+    static boolean isVoteWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return (HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method))
+                && request.getRequestURI().startsWith(request.getContextPath() + AdmissionInterceptor.VOTES_URL);
+    }
+}
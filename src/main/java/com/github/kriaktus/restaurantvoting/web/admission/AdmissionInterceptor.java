@@ -0,0 +1,58 @@
+package com.github.kriaktus.restaurantvoting.web.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.kriaktus.restaurantvoting.error.TooManyRequestsException;
+import com.github.kriaktus.restaurantvoting.web.AuthUser;
+import com.github.kriaktus.restaurantvoting.web.SecurityUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token buckets for voices, after authentication: the bucket is the principal's.
+ * The global concurrency limit is {@link AdmissionFilter}, before authentication.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+    static final String VOTES_URL = "/api/votes";
+    static final String EXCEPTION_USER_RATE = "Too many voting requests, retry later";
+
+    private final Cache<Integer, TokenBucket> userBuckets;
+    private final int userCapacity;
+    private final double userRefillPerSecond;
+    private final Counter userRejected;
+
+    public AdmissionInterceptor(MeterRegistry meterRegistry,
+                                @Value("${app.admission.user.capacity:10}") int userCapacity,
+                                @Value("${app.admission.user.refill-per-second:1}") double userRefillPerSecond) {
+        this.userBuckets = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(10)).build();
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.userRejected = meterRegistry.counter("admission.rejected", "reason", "user-rate");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !AdmissionFilter.isVoteWrite(request)) {
+            return true;
+        }
+        AuthUser authUser = SecurityUtil.safeGet();
+        if (authUser != null) {
+            long waitNanos = userBuckets.get(authUser.id(), id -> new TokenBucket(userCapacity, userRefillPerSecond)).tryAcquire();
+            if (waitNanos > 0) {
+                userRejected.increment();
+                throw new TooManyRequestsException(EXCEPTION_USER_RATE, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.kriaktus.restaurantvoting.web.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.kriaktus.restaurantvoting.to.CacheStatsTo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
+
+/**
+ * Named caches statistics, keys inspection and invalidation.
+ * <p>
+ * Keys are addressed by their string form, as listed by {@link #getKeys}.
+ */
+@RestController
+@RequestMapping(value = AdminCacheController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
+@Slf4j
+@Tag(name = "AdminCacheController")
+@ApiResponses({
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)})
+@AllArgsConstructor
+public class AdminCacheController {
+    static final String REST_URL = "/api/admin/caches";
+
+    private final CacheManager cacheManager;
+
+    @Operation(summary = "#getAll", description = "Get statistics of all caches")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CacheStatsTo.class)))))
+    @GetMapping
+    public List<CacheStatsTo> getAll() {
+        log.info("AdminCacheController#getAll()");
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(name -> toCacheStatsTo(name, getNativeCache(name)))
+                .toList();
+    }
+
+    @Operation(summary = "#get", description = "Get statistics of cache by name")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = CacheStatsTo.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping("/{name}")
+    public CacheStatsTo get(@PathVariable String name) {
+        log.info("AdminCacheController#get(name:{})", name);
+        return toCacheStatsTo(name, getNativeCache(name));
+    }
+
+    @Operation(summary = "#getKeys", description = "Get keys of cache by name")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping("/{name}/keys")
+    public List<String> getKeys(@PathVariable String name) {
+        log.info("AdminCacheController#getKeys(name:{})", name);
+        return getNativeCache(name).asMap().keySet().stream()
+                .map(String::valueOf)
+                .sorted()
+                .toList();
+    }
+
+    @Operation(summary = "#evict", description = "Invalidate cache entry by key string form")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "No Content"),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity")})
+    @DeleteMapping("/{name}/keys")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void evict(@PathVariable String name, @RequestParam String key) {
+        log.info("AdminCacheController#evict(name:{}, key:{})", name, key);
+        Cache<Object, Object> cache = getNativeCache(name);
+        Object cacheKey = checkNotFoundWithMessage(cache.asMap().keySet().stream()
+                        .filter(k -> String.valueOf(k).equals(key))
+                        .findFirst(),
+                String.format("Key %s not found in cache %s", key, name));
+        cache.invalidate(cacheKey);
+    }
+
+    @Operation(summary = "#clear", description = "Invalidate all entries of cache by name")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "No Content"),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity")})
+    @DeleteMapping("/{name}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear(@PathVariable String name) {
+        log.info("AdminCacheController#clear(name:{})", name);
+        getNativeCache(name).invalidateAll();
+    }
+
+    // cache manager creates unknown caches on demand
+    private Cache<Object, Object> getNativeCache(String name) {
+        return checkNotFoundWithMessage(Optional.of(name)
+                        .filter(cacheManager.getCacheNames()::contains)
+                        .map(cacheManager::getCache)
+                        .filter(CaffeineCache.class::isInstance)
+                        .map(cache -> ((CaffeineCache) cache).getNativeCache()),
+                String.format("Cache %s not found", name));
+    }
+
+    private static CacheStatsTo toCacheStatsTo(String name, Cache<Object, Object> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsTo(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), stats.loadCount(), stats.averageLoadPenalty() / 1_000_000);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.kriaktus.restaurantvoting.web.menu;
+
+import com.github.kriaktus.restaurantvoting.to.DayMenuTo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping(value = AdminDayMenuController.REST_URL)
+@Slf4j
+@Tag(name = "AdminDayMenuController")
+@ApiResponses({
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)})
+@AllArgsConstructor
+public class AdminDayMenuController {
+    private MenuPublisher menuPublisher;
+
+    public static final String REST_URL = "/api/admin/menus";
+
+    @Operation(summary = "#publish", description = "Create actual menus of many restaurants at once, all or none of them")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = DayMenuTo.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public DayMenuTo publish(@Valid @RequestBody DayMenuTo dayMenuTo) {
+        log.info("AdminDayMenuController#publish(menuDate:{}, menus:{})", dayMenuTo.getMenuDate(), dayMenuTo.getMenus().size());
+        return menuPublisher.publish(dayMenuTo);
+    }
+}
@@ -4,6 +4,7 @@ import com.github.kriaktus.restaurantvoting.model.Menu;
 import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
 import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
 import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,13 +13,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
@@ -42,6 +45,8 @@ public class AdminMenuController {
     private MenuRepository menuRepository;
     private RestaurantRepository restaurantRepository;
     private UniqueMenuToValidator uniqueMenuToValidator;
+    private ApplicationEventPublisher eventPublisher;
+    private MenuHistoryWriter menuHistoryWriter;
 
     public static final String REST_URL = "/api/admin/restaurants/{restaurantId}/menu";
 
@@ -74,13 +79,27 @@ public class AdminMenuController {
                 String.format("Menu by date=%s to restaurant with id=%d not found", date, restaurantId)));
     }
 
+    @Operation(summary = "#getHistory", description = "Stream menus of the restaurant (with id={restaurantId}) from {from} to {to} inclusive as NDJSON, one menu per line")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = MenuTo.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getHistory(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate from,
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate to,
+                                                            @PathVariable int restaurantId) {
+        log.info("AdminMenuController#getHistory(from:{}, to:{}, restaurantId:{})", from, to, restaurantId);
+        checkNotFoundWithMessage(!from.isAfter(to), String.format("Date from=%s is after to=%s", from, to));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> menuHistoryWriter.write(restaurantId, from, to, out));
+    }
+
     @Operation(summary = "#createActualWithLocation", description = "Create new actual menu of the restaurant (with id={restaurantId}), return in header his url")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = MenuTo.class))),
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @PostMapping
     @Transactional
-    @CacheEvict(cacheNames = {"restaurantTo", "restaurantWithMenuTo"}, allEntries = true)
     public ResponseEntity<MenuTo> createActualWithLocation(@Valid @RequestBody MenuTo menuTo, @PathVariable int restaurantId) {
         log.info("AdminMenuController#createActualWithLocation(menuTo:{}, restaurantId:{})", menuTo, restaurantId);
         checkNew(menuTo);
@@ -89,6 +108,7 @@ public class AdminMenuController {
         Menu created = menuRepository.save(fromMenuToAndRestaurant(
                 menuTo, checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId).getId())
         );
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
         URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path(REST_URL + "/actual")
                 .buildAndExpand(restaurantId)
@@ -103,13 +123,13 @@ public class AdminMenuController {
     @PutMapping("/actual")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Transactional
-    @CacheEvict(cacheNames = {"restaurantWithMenuTo"}, allEntries = true)
     public void updateActual(@Valid @RequestBody MenuTo menuTo, @PathVariable int restaurantId) {
         log.info("AdminMenuController#updateActual(menuTo:{}, restaurantId:{})", menuTo, restaurantId);
         Optional<Menu> actualMenu = menuRepository.findByDateAndRestaurantIdWithoutItems(LocalDate.now(), restaurantId);
         checkNotFoundWithMessage(actualMenu.isPresent(), String.format("Actual menu to restaurant with id=%d not found", restaurantId));
         assureIdConsistent(menuTo, actualMenu.get().id());
         menuRepository.save(fromMenuToAndRestaurant(menuTo, checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId).getId()));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
     }
 
     @Operation(summary = "#deleteActual", description = "Delete actual menu of the restaurant (with id={restaurantId})")
@@ -118,9 +138,9 @@ public class AdminMenuController {
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity")})
     @DeleteMapping("/actual")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(cacheNames = {"restaurantTo", "restaurantWithMenuTo"}, allEntries = true)
     public void deleteActual(@PathVariable int restaurantId) {
         log.info("AdminMenuController#deleteActual(restaurantId:{})", restaurantId);
         checkModification(menuRepository.deleteByDateAndRestaurantId(LocalDate.now(), restaurantId));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
     }
 }
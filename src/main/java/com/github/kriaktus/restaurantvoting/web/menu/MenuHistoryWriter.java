@@ -0,0 +1,54 @@
+package com.github.kriaktus.restaurantvoting.web.menu;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes menus of a restaurant over a date range as NDJSON: one {@link MenuTo} per line, ordered by date.
+ * <p>
+ * Rows are scrolled from the database and only the menu being assembled is held in memory,
+ * so memory doesn't depend on the range length. The read transaction lasts until the last line is written.
+ */
+@Component
+@AllArgsConstructor
+public class MenuHistoryWriter {
+    private final MenuRepository menuRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void write(int restaurantId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = menuRepository.streamHistory(restaurantId, from, to)) {
+            MenuTo menuTo = null;
+            for (Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); ) {
+                Object[] row = iterator.next();
+                if (menuTo == null || !menuTo.getId().equals(row[0])) {
+                    writeLine(menuTo, out);
+                    menuTo = new MenuTo((Integer) row[0], (LocalDate) row[1], new ArrayList<>());
+                }
+                // a menu without items comes as a single row with null item columns
+                if (row[2] != null) {
+                    menuTo.getItems().add(new MenuItemTo((Integer) row[2], (String) row[3], (Integer) row[4]));
+                }
+            }
+            writeLine(menuTo, out);
+        }
+    }
+
+    private void writeLine(MenuTo menuTo, OutputStream out) throws IOException {
+        if (menuTo == null) return;
+        out.write(objectMapper.writeValueAsBytes(menuTo));
+        out.write('\n');
+    }
+}
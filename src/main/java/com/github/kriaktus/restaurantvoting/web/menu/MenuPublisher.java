@@ -0,0 +1,155 @@
+package com.github.kriaktus.restaurantvoting.web.menu;
+
+import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.to.DayMenuTo;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantMenuTo;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNew;
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.*;
+
+/**
+ * Publishes menus of many restaurants for a date in one transaction.
+ * <p>
+ * The whole day is validated at once: existence of the restaurants and their menus on the date are two {@code IN} queries.
+ * Menus, items and their links are inserted in JDBC batches; Hibernate doesn't batch inserts of IDENTITY entities,
+ * here the ids of every batch are read back by {@code getGeneratedKeys}.
+ * A single {@link RestaurantChangedEvent} of all the restaurants invalidates caches after the commit.
+ */
+@Component
+@Slf4j
+public class MenuPublisher {
+    private static final String INSERT_MENU = "INSERT INTO menu (menu_date, restaurant_id) VALUES (?, ?)";
+    private static final String INSERT_MENU_ITEM = "INSERT INTO menu_item (restaurant_id, name, price) VALUES (?, ?, ?)";
+    private static final String INSERT_MENU_MENU_ITEM = "INSERT INTO menu_menu_item (menu_id, menu_item_id) VALUES (?, ?)";
+
+    private final MenuRepository menuRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int batchSize;
+
+    public MenuPublisher(MenuRepository menuRepository, RestaurantRepository restaurantRepository,
+                         JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, Clock clock,
+                         @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}") int batchSize) {
+        this.menuRepository = menuRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the published menus with ids of the menus and their items
+     */
+    @Transactional
+    public DayMenuTo publish(DayMenuTo dayMenuTo) {
+        LocalDate date = dayMenuTo.getMenuDate();
+        List<RestaurantMenuTo> menus = dayMenuTo.getMenus();
+        Set<Integer> restaurantIds = validate(date, menus);
+
+        int[] menuIds = insert(INSERT_MENU, menus, (ps, menu) -> {
+            ps.setObject(1, date);
+            ps.setInt(2, menu.getRestaurantId());
+        });
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < menus.size(); i++) {
+            for (MenuItemTo itemTo : menus.get(i).getItems()) {
+                items.add(new Item(i, menus.get(i).getRestaurantId(), itemTo));
+            }
+        }
+        int[] itemIds = insert(INSERT_MENU_ITEM, items, (ps, item) -> {
+            ps.setInt(1, item.restaurantId());
+            ps.setString(2, item.itemTo().getName());
+            ps.setInt(3, item.itemTo().getPrice());
+        });
+        List<int[]> links = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            links.add(new int[]{menuIds[items.get(i).menu()], itemIds[i]});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MENU_MENU_ITEM, links, batchSize, (ps, link) -> {
+            ps.setInt(1, link[0]);
+            ps.setInt(2, link[1]);
+        });
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantIds));
+        log.info("{} menus with {} items published by date={}", menus.size(), items.size(), date);
+
+        List<RestaurantMenuTo> published = new ArrayList<>(menus.size());
+        int item = 0;
+        for (int i = 0; i < menus.size(); i++) {
+            List<MenuItemTo> menuItems = new ArrayList<>();
+            for (MenuItemTo itemTo : menus.get(i).getItems()) {
+                menuItems.add(new MenuItemTo(itemIds[item++], itemTo.getName(), itemTo.getPrice()));
+            }
+            published.add(new RestaurantMenuTo(menuIds[i], menus.get(i).getRestaurantId(), menuItems));
+        }
+        return new DayMenuTo(date, published);
+    }
+
+    private Set<Integer> validate(LocalDate date, List<RestaurantMenuTo> menus) {
+        checkNotFoundWithMessage(date.isEqual(LocalDate.now(clock)), EXCEPTION_MENU_ACTUAL_DATE);
+        Set<Integer> restaurantIds = new TreeSet<>();
+        for (RestaurantMenuTo menu : menus) {
+            checkNew(menu);
+            checkNotFoundWithMessage(restaurantIds.add(menu.getRestaurantId()), EXCEPTION_MENUS_HAS_SAME_RESTAURANT);
+            checkNotFoundWithMessage(menu.getItems().stream().allMatch(MenuItemTo::isNew), EXCEPTION_MENU_MENU_ITEM_HAS_ID);
+            Set<String> names = new HashSet<>();
+            checkNotFoundWithMessage(menu.getItems().stream().allMatch(itemTo -> names.add(itemTo.getName())),
+                    EXCEPTION_MENU_MENU_ITEM_HAS_SAME_NAME);
+        }
+        Set<Integer> notFound = new TreeSet<>(restaurantIds);
+        restaurantRepository.findExistingIds(restaurantIds).forEach(notFound::remove);
+        checkNotFoundWithMessage(notFound.isEmpty(), String.format("Restaurants with id=%s not found", notFound));
+        Set<Integer> published = new TreeSet<>(menuRepository.findRestaurantIdsByDate(date, restaurantIds));
+        checkNotFoundWithMessage(published.isEmpty(),
+                String.format("Menu by date=%s to restaurants with id=%s already exist", date, published));
+        return restaurantIds;
+    }
+
+    // rows in batches of batchSize, returns generated ids in the order of rows
+    //  a driver returning keys of the last batch only, or none, fails the publication instead of linking wrong ids
+    private <T> int[] insert(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        return jdbcTemplate.execute(con -> con.prepareStatement(sql, new String[]{"id"}), (PreparedStatement ps) -> {
+            int[] ids = new int[rows.size()];
+            int count = 0;
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, rows.size());
+                for (T row : rows.subList(from, to)) {
+                    setter.setValues(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (; keys.next(); count++) {
+                        if (count < to) ids[count] = keys.getInt(1);
+                    }
+                }
+                if (count != to) {
+                    throw new IllegalStateException(String.format("%d generated ids for %d rows of '%s'", count, to, sql));
+                }
+            }
+            return ids;
+        });
+    }
+
+    private record Item(int menu, int restaurantId, MenuItemTo itemTo) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.github.kriaktus.restaurantvoting.web.menu;
 
-import com.github.kriaktus.restaurantvoting.model.MenuItem;
 import com.github.kriaktus.restaurantvoting.repository.MenuItemRepository;
 import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
 import com.github.kriaktus.restaurantvoting.to.MenuTo;
@@ -16,7 +15,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static com.github.kriaktus.restaurantvoting.util.MenuItemUtil.fromMenuItemToAndRestaurantId;
 import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.*;
 
 @Component
@@ -50,11 +48,12 @@ public class UniqueMenuToValidator implements Validator {
                 if (hasId) errors.rejectValue("items", "", EXCEPTION_MENU_MENU_ITEM_HAS_ID);
             }
             case "PUT" -> {
-                Set<MenuItem> menuItems = fromMenuItemToAndRestaurantId(menuItemTo, restaurantId);
-                Set<MenuItem> allItemsByRestaurant = menuItemRepository.findAllByRestaurantId(restaurantId);
-                boolean belongToAnotherRestaurant = menuItems.stream()
-                        .filter(item -> !item.isNew() && !allItemsByRestaurant.contains(item))
-                        .anyMatch(obj -> true);
+                Set<Integer> ids = menuItemTo.stream()
+                        .filter(item -> !item.isNew())
+                        .map(MenuItemTo::getId)
+                        .collect(Collectors.toSet());
+                boolean belongToAnotherRestaurant = !ids.isEmpty() &&
+                        menuItemRepository.countByRestaurantIdAndIdIn(restaurantId, ids) != ids.size();
                 if (belongToAnotherRestaurant)
                     errors.rejectValue("items", "", EXCEPTION_MENU_ITEM_FROM_ANOTHER_RESTAURANT);
                 boolean hasSameId = menuItemTo.stream()
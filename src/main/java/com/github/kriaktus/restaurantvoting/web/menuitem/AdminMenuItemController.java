@@ -5,6 +5,7 @@ import com.github.kriaktus.restaurantvoting.repository.MenuItemRepository;
 import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
 import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
 import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,7 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -44,6 +45,7 @@ public class AdminMenuItemController {
     private MenuRepository menuRepository;
     private RestaurantRepository restaurantRepository;
     private UniqueMenuItemToValidator uniqueMenuItemToValidator;
+    private ApplicationEventPublisher eventPublisher;
 
     public static final String REST_URL = "/api/admin/restaurants/{restaurantId}/menu/actual/menu-item";
 
@@ -59,8 +61,8 @@ public class AdminMenuItemController {
     @GetMapping("/{id}")
     public MenuItemTo getFromActualMenu(@PathVariable int id, @PathVariable int restaurantId) {
         log.info("AdminMenuItemController#getFromActualMenu(id:{}, restaurantId:{})", id, restaurantId);
-        return toMenuItemTo(checkNotFoundWithMessage(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, restaurantId),
-                String.format("Menu item with id=%d and restaurantId=%d not found in actual menu", id, restaurantId)));
+        return checkNotFoundWithMessage(menuItemRepository.findToFromActiveMenuByIdAndRestaurantId(id, restaurantId, LocalDate.now()),
+                String.format("Menu item with id=%d and restaurantId=%d not found in actual menu", id, restaurantId));
     }
 
     @Operation(summary = "#createWithLocationToActualMenu", description = "Create new menu item in restaurant (with id={restaurantId}) actual menu, return in header his url")
@@ -69,12 +71,12 @@ public class AdminMenuItemController {
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @PostMapping
     @Transactional
-    @CacheEvict(cacheNames = "restaurantWithMenuTo", allEntries = true)
     public ResponseEntity<MenuItemTo> createWithLocationToActualMenu(@Valid @RequestBody MenuItemTo menuItemTo, @PathVariable int restaurantId) {
         log.info("AdminMenuItemController#createWithLocationToActualMenu(menuItemTo:{}, restaurantId:{})", menuItemTo, restaurantId);
         checkNew(menuItemTo);
         MenuItem created = saveMenuTo(menuItemTo, restaurantId);
         getActualMenuItems(restaurantId).add(created);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
         URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path(REST_URL + "/{id}")
                 .buildAndExpand(restaurantId, created.getId())
@@ -89,11 +91,11 @@ public class AdminMenuItemController {
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Transactional
-    @CacheEvict(cacheNames = "restaurantWithMenuTo", allEntries = true)
     public void updateInActualMenu(@Valid @RequestBody MenuItemTo menuItemTo, @PathVariable int id, @PathVariable int restaurantId) {
         log.info("AdminMenuItemController#updateInActualMenu(menuItemTo:{}, id:{}, restaurantId:{})", menuItemTo, id, restaurantId);
         assureIdConsistent(menuItemTo, id);
         getActualMenuItems(restaurantId).add(saveMenuTo(menuItemTo, restaurantId));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
     }
 
     @Operation(summary = "#deleteFromActualMenu", description = "Delete menu item by id from the restaurant (with id={restaurantId}) actual menu")
@@ -103,11 +105,11 @@ public class AdminMenuItemController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Transactional
-    @CacheEvict(cacheNames = "restaurantWithMenuTo", allEntries = true)
     public void deleteFromActualMenu(@PathVariable int id, @PathVariable int restaurantId) {
         log.info("AdminMenuItemController#deleteFromActualMenu(id:{}, restaurantId:{})", id, restaurantId);
-        MenuItem itemToRemove = checkNotFoundWithId(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, restaurantId), id);
+        MenuItem itemToRemove = checkNotFoundWithId(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, restaurantId, LocalDate.now()), id);
         getActualMenuItems(restaurantId).remove(itemToRemove);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
     }
 
     private Set<MenuItem> getActualMenuItems(int restaurantId) {
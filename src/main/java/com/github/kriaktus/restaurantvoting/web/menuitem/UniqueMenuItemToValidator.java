@@ -15,7 +15,6 @@ import java.time.LocalDate;
 import java.util.Objects;
 import java.util.Set;
 
-import static com.github.kriaktus.restaurantvoting.util.MenuItemUtil.fromMenuItemToAndRestaurantId;
 import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_MENU_ITEM_DUPLICATE_NAME;
 import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_MENU_ITEM_FROM_ANOTHER_RESTAURANT;
 
@@ -52,9 +51,7 @@ public class UniqueMenuItemToValidator implements Validator {
                         errors.rejectValue("name", "", EXCEPTION_MENU_ITEM_DUPLICATE_NAME);
                 }
                 case "PUT" -> {
-                    Set<MenuItem> allItemsByRestaurant = menuItemRepository.findAllByRestaurantId(restaurantId);
-                    MenuItem menuItem = fromMenuItemToAndRestaurantId(itemTo, restaurantId);
-                    if (!menuItem.isNew() && !allItemsByRestaurant.contains(menuItem))
+                    if (!itemTo.isNew() && !menuItemRepository.existsByIdAndRestaurantId(itemTo.id(), restaurantId))
                         errors.rejectValue("id", "", EXCEPTION_MENU_ITEM_FROM_ANOTHER_RESTAURANT);
                     boolean duplicateNameWithItemFromActualMenuNotItself = actualMenuItems.stream()
                             .filter(item -> item.getName().equals(itemToName) && !Objects.equals(item.getId(), itemTo.getId()))
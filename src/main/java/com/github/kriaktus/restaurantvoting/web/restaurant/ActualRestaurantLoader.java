@@ -0,0 +1,31 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import com.github.kriaktus.restaurantvoting.util.RestaurantUtil;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads {@link ActualRestaurants} cache entries, {@code null} for a restaurant without a menu on the date.
+ * <p>
+ * Also reloads hot entries ahead of expiry, so it must not depend on the cache manager.
+ */
+@Component
+@AllArgsConstructor
+public class ActualRestaurantLoader {
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+
+    public RestaurantTo loadActive(RestaurantDayKey key) {
+        return restaurantRepository.findActiveToById(key.getRestaurantId(), key.getDate()).orElse(null);
+    }
+
+    public RestaurantWithMenuTo loadWithMenu(RestaurantDayKey key) {
+        return restaurantWithMenuRepository.find(key.getRestaurantId(), key.getDate())
+                .filter(RestaurantUtil::hasMenuItems)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.*;
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
+
+/**
+ * Restaurants having a menu for a date, cached by {@link RestaurantDayKey}: an entry never outlives its day.
+ * Concurrent misses of a key are coalesced into one load, hot entries are reloaded in background ahead of expiry.
+ * <p>
+ * Before midnight the next day's entries and {@link RestaurantSnapshot} are built from already published menus,
+ * so the first requests of the day are cache hits. Entries are evicted after a {@link RestaurantChangedEvent} commits.
+ */
+@Component
+@Slf4j
+public class ActualRestaurants {
+    public static final String RESTAURANT_TO_CACHE = "restaurantTo";
+    public static final String RESTAURANT_WITH_MENU_TO_CACHE = "restaurantWithMenuTo";
+
+    private final RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    private final ActualRestaurantLoader loader;
+    private final RestaurantSnapshot restaurantSnapshot;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+
+    public ActualRestaurants(RestaurantWithMenuJdbcRepository restaurantWithMenuRepository, ActualRestaurantLoader loader,
+                             RestaurantSnapshot restaurantSnapshot, CacheManager cacheManager, Clock clock) {
+        this.restaurantWithMenuRepository = restaurantWithMenuRepository;
+        this.loader = loader;
+        this.restaurantSnapshot = restaurantSnapshot;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+    }
+
+    // sync: concurrent misses of a key wait for a single load
+    @Cacheable(cacheNames = RESTAURANT_TO_CACHE, sync = true)
+    public RestaurantTo getActive(RestaurantDayKey key) {
+        return checkNotFoundWithMessage(Optional.ofNullable(loader.loadActive(key)), notFoundMessage(key));
+    }
+
+    @Cacheable(cacheNames = RESTAURANT_WITH_MENU_TO_CACHE, sync = true)
+    public RestaurantWithMenuTo getWithMenu(RestaurantDayKey key) {
+        return checkNotFoundWithMessage(Optional.ofNullable(loader.loadWithMenu(key)), notFoundMessage(key));
+    }
+
+    private static String notFoundMessage(RestaurantDayKey key) {
+        return String.format("Restaurant with id=%s not exist or hasn't actual menu", key.getRestaurantId());
+    }
+
+    // a renamed or deleted restaurant may be already warmed up for tomorrow
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        LocalDate today = LocalDate.now(clock);
+        for (LocalDate date : List.of(today, today.plusDays(1))) {
+            for (int restaurantId : event.getRestaurantIds()) {
+                RestaurantDayKey key = new RestaurantDayKey(date, restaurantId);
+                getCache(RESTAURANT_TO_CACHE).evict(key);
+                getCache(RESTAURANT_WITH_MENU_TO_CACHE).evict(key);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.restaurant.warmup-cron}")
+    public void warmUpTomorrow() {
+        warmUp(LocalDate.now(clock).plusDays(1));
+    }
+
+    void warmUp(LocalDate date) {
+        List<RestaurantWithMenuTo> restaurants = restaurantWithMenuRepository.findAll(date);
+        restaurantSnapshot.prepare(date, restaurants);
+        for (RestaurantWithMenuTo restaurant : restaurants) {
+            RestaurantDayKey key = new RestaurantDayKey(date, restaurant.id());
+            getCache(RESTAURANT_TO_CACHE).put(key, toRestaurantTo(restaurant));
+            if (hasMenuItems(restaurant)) {
+                getCache(RESTAURANT_WITH_MENU_TO_CACHE).put(key, restaurant);
+            }
+        }
+        log.info("Restaurants for {} warmed up: {} active", date, restaurants.size());
+    }
+
+    private Cache getCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) throw new IllegalStateException("Cache " + name + " is not configured");
+        return cache;
+    }
+}
@@ -10,7 +10,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -36,6 +37,9 @@ public class AdminRestaurantController extends AbstractRestaurantController {
 
     static final String REST_URL = "/api/admin/restaurants";
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Operation(summary = "#getAll", description = "Get all restaurants")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantTo.class)))))
     @GetMapping
@@ -53,6 +57,7 @@ public class AdminRestaurantController extends AbstractRestaurantController {
         log.info("AdminRestaurantController#createWithLocation(restaurantTo:{})", restaurantTo);
         checkNew(restaurantTo);
         Restaurant created = restaurantRepository.save(toRestaurant(restaurantTo));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(created.id()));
         URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path(REST_URL + "/{id}").build(created.id());
         return ResponseEntity.created(uriOfNewResource).body(toRestaurantTo(created));
@@ -65,11 +70,11 @@ public class AdminRestaurantController extends AbstractRestaurantController {
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Transactional
-    @CacheEvict(cacheNames = {"restaurantTo", "restaurantWithMenuTo"}, allEntries = true)
     public void update(@Valid @RequestBody RestaurantTo restaurantTo, @PathVariable int id) {
         log.info("AdminRestaurantController#update(restaurantTo:{}, id:{})", restaurantTo, id);
         assureIdConsistent(restaurantTo, id);
         updateRestaurantFields(checkNotFoundWithId(restaurantRepository.findById(id), id), restaurantTo);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
     }
 
     @Operation(summary = "#delete", description = "Delete restaurant by id")
@@ -78,9 +83,9 @@ public class AdminRestaurantController extends AbstractRestaurantController {
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity")})
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(cacheNames = {"restaurantTo", "restaurantWithMenuTo"}, allEntries = true)
     public void delete(@PathVariable int id) {
         log.info("AdminRestaurantController#delete(id:{})", id);
         restaurantRepository.deleteExisted(id);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
     }
 }
\ No newline at end of file
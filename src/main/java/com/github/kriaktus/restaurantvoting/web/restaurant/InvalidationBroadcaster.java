@@ -0,0 +1,14 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import java.util.Collection;
+
+/**
+ * Transport of committed restaurant changes between application instances.
+ * <p>
+ * Implementation delivers changes of other instances as remote {@link RestaurantChangedEvent}s,
+ * selected by {@code app.restaurant.invalidation.transport}.
+ */
+public interface InvalidationBroadcaster {
+
+    void broadcast(Collection<Integer> restaurantIds);
+}
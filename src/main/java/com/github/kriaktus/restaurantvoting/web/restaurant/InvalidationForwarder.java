@@ -0,0 +1,26 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed local {@link RestaurantChangedEvent}s to the configured {@link InvalidationBroadcaster}, if any.
+ */
+@Component
+@AllArgsConstructor
+public class InvalidationForwarder {
+    private final ObjectProvider<InvalidationBroadcaster> broadcaster;
+
+    //  own transaction: resources of the committed one are still bound, but can't commit anymore
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!event.isRemote()) {
+            broadcaster.ifAvailable(b -> b.broadcast(event.getRestaurantIds()));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Broadcasts through the shared database: every instance appends its changes to RESTAURANT_CHANGE
+ * and polls the changes of others appended after its start.
+ * <p>
+ * Ids and timestamps are taken on insert, so a row may become visible after rows with greater ones.
+ * Every poll re-reads the rows changed within {@code overlap-seconds} before the newest one read and skips the already applied ids:
+ * a change is missed only if its transaction lasts longer than the overlap.
+ * Rows older than {@code retention-minutes} are deleted by the polling instances.
+ * Timestamps are compared by the database clock only, instance clocks may differ.
+ */
+@Component
+@ConditionalOnProperty(name = "app.restaurant.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+@Slf4j
+public class JdbcInvalidationBroadcaster implements InvalidationBroadcaster {
+    private static final String INSERT_SQL = "INSERT INTO restaurant_change (node_id, restaurant_id) VALUES (?, ?)";
+    private static final String SELECT_SQL = "SELECT id, node_id, restaurant_id, changed_at FROM restaurant_change WHERE changed_at > ? ORDER BY id";
+    private static final String PURGE_SQL = "DELETE FROM restaurant_change WHERE changed_at < ?";
+    private static final String NOW_SQL = "SELECT LOCALTIMESTAMP";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long retentionMinutes;
+    private final Duration overlap;
+    // ids read within the overlap, by their change time; guarded by this
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    private LocalDateTime newest;
+
+    public JdbcInvalidationBroadcaster(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                       @Value("${app.restaurant.invalidation.retention-minutes:60}") long retentionMinutes,
+                                       @Value("${app.restaurant.invalidation.overlap-seconds:60}") long overlapSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retentionMinutes = retentionMinutes;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+        this.newest = now();
+    }
+
+    // local caches start empty: changes visible before are not relevant
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void skipEarlierChanges() {
+        applied.clear();
+        newest = now();
+        read().forEach(change -> applied.put(change.id, change.changedAt));
+    }
+
+    @Override
+    public void broadcast(Collection<Integer> restaurantIds) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, restaurantIds.stream().map(id -> new Object[]{nodeId, id}).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.restaurant.invalidation.poll-ms}")
+    public synchronized void poll() {
+        Set<Integer> restaurantIds = new HashSet<>();
+        int polled = 0;
+        for (Change change : read()) {
+            if (applied.putIfAbsent(change.id, change.changedAt) != null) continue;
+            polled++;
+            if (!nodeId.equals(change.nodeId)) {
+                restaurantIds.add(change.restaurantId);
+            }
+            if (change.changedAt.isAfter(newest)) {
+                newest = change.changedAt;
+            }
+        }
+        LocalDateTime from = newest.minus(overlap);
+        applied.values().removeIf(changedAt -> !changedAt.isAfter(from));
+        // all changes of a poll are applied at once
+        if (!restaurantIds.isEmpty()) {
+            eventPublisher.publishEvent(new RestaurantChangedEvent(Set.copyOf(restaurantIds), true));
+        }
+        if (polled > 0) {
+            log.debug("{} restaurant changes polled", polled);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.restaurant.invalidation.purge-ms:600000}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, now().minusMinutes(retentionMinutes));
+        if (deleted > 0) {
+            log.info("{} restaurant changes purged", deleted);
+        }
+    }
+
+    private LocalDateTime now() {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class)).toLocalDateTime();
+    }
+
+    private List<Change> read() {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new Change(rs.getLong("id"), rs.getString("node_id"),
+                rs.getInt("restaurant_id"), rs.getTimestamp("changed_at").toLocalDateTime()), newest.minus(overlap));
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class Change {
+        private final long id;
+        private final String nodeId;
+        private final int restaurantId;
+        private final LocalDateTime changedAt;
+    }
+}
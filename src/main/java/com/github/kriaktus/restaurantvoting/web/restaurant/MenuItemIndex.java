@@ -0,0 +1,169 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of menu item names by menu date, for search of items by word prefixes.
+ * <p>
+ * Names are split into words, lower-cased and {@code ё} is folded into {@code е}, so Cyrillic queries match regardless of case.
+ * An index of a date is built at its first search; every {@link RestaurantChangedEvent} marks its restaurants as changed
+ * in all built indexes, and the next search reloads their menus only, in one batch. The most recently searched dates are kept.
+ */
+@Component
+@Slf4j
+public class MenuItemIndex {
+    static final int MAX_DATES = 7;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    private final Map<LocalDate, DayIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, DayIndex> eldest) {
+            return size() > MAX_DATES;
+        }
+    };
+
+    public MenuItemIndex(RestaurantWithMenuJdbcRepository restaurantWithMenuRepository) {
+        this.restaurantWithMenuRepository = restaurantWithMenuRepository;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        synchronized (indexes) {
+            indexes.values().forEach(index -> index.changed.addAll(event.getRestaurantIds()));
+        }
+    }
+
+    /**
+     * @return restaurants having a menu on the date with only the items whose name has a word starting with every query word
+     */
+    public List<RestaurantWithMenuTo> search(String query, LocalDate date) {
+        Set<String> prefixes = tokenize(query);
+        if (prefixes.isEmpty()) return List.of();
+        DayIndex index;
+        synchronized (indexes) {
+            index = indexes.computeIfAbsent(date, DayIndex::new);
+        }
+        index.refresh();
+        return index.search(prefixes);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private record Hit(int restaurantId, MenuItemTo item) {
+    }
+
+    private class DayIndex {
+        private final LocalDate date;
+        private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, RestaurantWithMenuTo> restaurants = new HashMap<>();
+        // word -> items having it in the name; sorted for prefix lookups
+        private final NavigableMap<String, Set<Hit>> postings = new TreeMap<>();
+        private volatile boolean loaded;
+
+        private DayIndex(LocalDate date) {
+            this.date = date;
+        }
+
+        private void refresh() {
+            if (loaded && changed.isEmpty()) return;
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    // changes committed from here on are either already read or marked again
+                    changed.clear();
+                    restaurantWithMenuRepository.findAll(date).forEach(this::add);
+                    loaded = true;
+                    log.info("Menu item index for {} built: {} restaurants, {} words", date, restaurants.size(), postings.size());
+                } else {
+                    List<Integer> ids = new ArrayList<>();
+                    for (Iterator<Integer> iterator = changed.iterator(); iterator.hasNext(); ) {
+                        int id = iterator.next();
+                        iterator.remove();
+                        ids.add(id);
+                        remove(id);
+                    }
+                    restaurantWithMenuRepository.findAll(ids, date).forEach(this::add);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void add(RestaurantWithMenuTo restaurant) {
+            restaurants.put(restaurant.getId(), restaurant);
+            for (MenuItemTo item : restaurant.menuTo.getItems()) {
+                Hit hit = new Hit(restaurant.getId(), item);
+                tokenize(item.getName()).forEach(word -> postings.computeIfAbsent(word, w -> new HashSet<>()).add(hit));
+            }
+        }
+
+        private void remove(int restaurantId) {
+            RestaurantWithMenuTo restaurant = restaurants.remove(restaurantId);
+            if (restaurant == null) return;
+            for (MenuItemTo item : restaurant.menuTo.getItems()) {
+                Hit hit = new Hit(restaurantId, item);
+                for (String word : tokenize(item.getName())) {
+                    Set<Hit> hits = postings.get(word);
+                    hits.remove(hit);
+                    if (hits.isEmpty()) postings.remove(word);
+                }
+            }
+        }
+
+        private List<RestaurantWithMenuTo> search(Set<String> prefixes) {
+            lock.readLock().lock();
+            try {
+                Set<Hit> found = null;
+                for (String prefix : prefixes) {
+                    Set<Hit> matches = new HashSet<>();
+                    postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(matches::addAll);
+                    if (found == null) {
+                        found = matches;
+                    } else {
+                        found.retainAll(matches);
+                    }
+                    if (found.isEmpty()) return List.of();
+                }
+                return toRestaurants(found);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // ordered by restaurant id, items by id
+        private List<RestaurantWithMenuTo> toRestaurants(Set<Hit> hits) {
+            Map<Integer, List<MenuItemTo>> items = new TreeMap<>();
+            hits.forEach(hit -> items.computeIfAbsent(hit.restaurantId(), id -> new ArrayList<>()).add(hit.item()));
+            List<RestaurantWithMenuTo> result = new ArrayList<>(items.size());
+            items.forEach((id, restaurantItems) -> {
+                restaurantItems.sort(Comparator.comparing(MenuItemTo::getId));
+                RestaurantWithMenuTo restaurant = restaurants.get(id);
+                result.add(new RestaurantWithMenuTo(id, restaurant.getName(),
+                        new MenuTo(restaurant.menuTo.getId(), date, List.copyOf(restaurantItems))));
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuItemWithRestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.toRestaurantTo;
+
+/**
+ * Today's menu items sorted by price, then by id, in parallel {@code int[]} of prices, item ids and restaurant ids.
+ * <p>
+ * A price range is found by two binary searches and only the items of the returned page are materialized.
+ * Every {@link RestaurantChangedEvent} bumps the version, the next read rebuilds the index; so does a new day.
+ */
+@Component
+@Slf4j
+public class MenuItemPriceIndex {
+    private final RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    private final Clock clock;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Index current;
+
+    public MenuItemPriceIndex(RestaurantWithMenuJdbcRepository restaurantWithMenuRepository, Clock clock) {
+        this.restaurantWithMenuRepository = restaurantWithMenuRepository;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * @param ascending by price, items of the same price by id in the same direction
+     * @return at most {@code limit} of today's items priced from {@code minPrice} to {@code maxPrice} inclusive
+     */
+    public List<MenuItemWithRestaurantTo> find(int minPrice, int maxPrice, boolean ascending, int limit) {
+        Index index = get();
+        int from = lowerBound(index.prices, minPrice);
+        int to = maxPrice == Integer.MAX_VALUE ? index.prices.length : lowerBound(index.prices, maxPrice + 1);
+        int size = Math.max(0, Math.min(limit, to - from));
+        List<MenuItemWithRestaurantTo> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int position = ascending ? from + i : to - 1 - i;
+            MenuItemTo item = index.items.get(index.itemIds[position]);
+            result.add(new MenuItemWithRestaurantTo(item.getId(), item.getName(), item.getPrice(),
+                    index.restaurants.get(index.restaurantIds[position])));
+        }
+        return result;
+    }
+
+    // first position of a price not less than the given one
+    static int lowerBound(int[] prices, int price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Index get() {
+        LocalDate today = LocalDate.now(clock);
+        Index index = current;
+        if (index != null && index.version == version.get() && index.date.equals(today)) return index;
+        synchronized (this) {
+            // version is taken before the query: a change committed meanwhile forces one more rebuild
+            long actualVersion = version.get();
+            index = current;
+            if (index == null || index.version != actualVersion || !index.date.equals(today)) {
+                index = build(today, actualVersion, restaurantWithMenuRepository.findAll(today));
+                log.debug("Menu item price index for {} rebuilt, version {}: {} items", today, actualVersion, index.prices.length);
+                current = index;
+            }
+            return index;
+        }
+    }
+
+    private static Index build(LocalDate date, long version, List<RestaurantWithMenuTo> restaurants) {
+        Map<Integer, MenuItemTo> items = new HashMap<>();
+        Map<Integer, RestaurantTo> restaurantTos = new HashMap<>();
+        Map<Integer, Integer> restaurantOfItem = new HashMap<>();
+        for (RestaurantWithMenuTo restaurant : restaurants) {
+            restaurantTos.put(restaurant.getId(), toRestaurantTo(restaurant));
+            for (MenuItemTo item : restaurant.menuTo.getItems()) {
+                items.put(item.getId(), item);
+                restaurantOfItem.put(item.getId(), restaurant.getId());
+            }
+        }
+        // price in the high half, item id in the low one: a primitive sort orders by price, then by id
+        long[] keys = new long[items.size()];
+        int i = 0;
+        for (MenuItemTo item : items.values()) {
+            keys[i++] = (long) item.getPrice() << 32 | item.getId();
+        }
+        Arrays.sort(keys);
+        int[] prices = new int[keys.length];
+        int[] itemIds = new int[keys.length];
+        int[] restaurantIds = new int[keys.length];
+        for (i = 0; i < keys.length; i++) {
+            prices[i] = (int) (keys[i] >>> 32);
+            itemIds[i] = (int) keys[i];
+            restaurantIds[i] = restaurantOfItem.get(itemIds[i]);
+        }
+        return new Index(date, version, prices, itemIds, restaurantIds, items, restaurantTos);
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class Index {
+        private final LocalDate date;
+        private final long version;
+        private final int[] prices;
+        private final int[] itemIds;
+        private final int[] restaurantIds;
+        private final Map<Integer, MenuItemTo> items;
+        private final Map<Integer, RestaurantTo> restaurants;
+    }
+}
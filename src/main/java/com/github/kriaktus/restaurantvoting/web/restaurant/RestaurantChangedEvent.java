@@ -0,0 +1,28 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published by admin controllers when restaurants, their menus or menu items are created, changed or deleted.
+ * A bulk change is published once for all its restaurants.
+ * <p>
+ * {@code remote} events are changes made by other instances, delivered by {@link InvalidationBroadcaster}.
+ */
+@Value
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+    Set<Integer> restaurantIds;
+    boolean remote;
+
+    public RestaurantChangedEvent(int restaurantId) {
+        this(Set.of(restaurantId), false);
+    }
+
+    public RestaurantChangedEvent(Collection<Integer> restaurantIds) {
+        this(Set.copyOf(restaurantIds), false);
+    }
+}
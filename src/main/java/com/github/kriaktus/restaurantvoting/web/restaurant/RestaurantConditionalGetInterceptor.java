@@ -0,0 +1,114 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Conditional GETs for {@link RestaurantController}: a strong ETag of the {@link RestaurantSnapshot} version and the request path with query,
+ * a matching If-None-Match is answered with 304 before the handler builds any body.
+ * Every response is built from the data of the snapshot, except search in menus of another day: it gets no ETag.
+ * Only the snapshot lists are sent gzip-encoded, their ETag is suffixed for it.
+ * <p>
+ * Clients may reuse a response for {@code app.restaurant.max-age-seconds}, but never past midnight.
+ * The ETag is taken before the handler, but the validators are written with the body of a 200 response only:
+ * errors are not cacheable.
+ */
+@ControllerAdvice(assignableTypes = RestaurantController.class)
+public class RestaurantConditionalGetInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+    public static final String[] PATH_PATTERNS = {RestaurantController.REST_URL, RestaurantController.REST_URL + "/**"};
+    private static final String ETAG_ATTRIBUTE = RestaurantConditionalGetInterceptor.class.getName() + ".eTag";
+
+    private final RestaurantSnapshot restaurantSnapshot;
+    private final Clock clock;
+    private final long maxAgeSeconds;
+
+    public RestaurantConditionalGetInterceptor(RestaurantSnapshot restaurantSnapshot, Clock clock,
+                                               @Value("${app.restaurant.max-age-seconds:60}") long maxAgeSeconds) {
+        this.restaurantSnapshot = restaurantSnapshot;
+        this.clock = clock;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) return true;
+        String date = request.getParameter("date");
+        if (date != null && !date.equals(LocalDate.now(clock).toString())) return true;
+        String eTag = getETag(request, handler);
+        // without a response the check doesn't write any headers
+        if (new ServletWebRequest(request).checkNotModified(eTag)) {
+            HttpHeaders headers = new HttpHeaders();
+            setValidators(headers, eTag);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, eTag);
+        return true;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+        Object eTag = servletRequest.getAttribute(ETAG_ATTRIBUTE);
+        if (eTag != null && servletResponse.getStatus() == HttpStatus.OK.value()) {
+            setValidators(response.getHeaders(), (String) eTag);
+        }
+        return body;
+    }
+
+    private String getETag(HttpServletRequest request, Object handler) {
+        String query = request.getQueryString();
+        String path = query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+        boolean gzip = isSnapshotList(handler) && RestaurantSnapshot.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return "\"" + restaurantSnapshot.getVersion() + '.' + Integer.toHexString(path.hashCode()) + (gzip ? "-gzip\"" : "\"");
+    }
+
+    // ready serialized JSON of RestaurantSnapshot, plain or gzip
+    private static boolean isSnapshotList(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod
+                && ResolvableType.forMethodReturnType(handlerMethod.getMethod()).resolveGeneric() == byte[].class;
+    }
+
+    private void setValidators(HttpHeaders headers, String eTag) {
+        headers.setETag(eTag);
+        headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(getMaxAgeSeconds())).cachePrivate().mustRevalidate());
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    private long getMaxAgeSeconds() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atTime(LocalTime.MIDNIGHT)).toSeconds();
+        return Math.min(maxAgeSeconds, untilMidnight);
+    }
+}
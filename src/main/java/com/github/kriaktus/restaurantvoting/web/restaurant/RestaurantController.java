@@ -1,5 +1,6 @@
 package com.github.kriaktus.restaurantvoting.web.restaurant;
 
+import com.github.kriaktus.restaurantvoting.to.MenuItemWithRestaurantTo;
 import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
 import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,18 +10,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.List;
 
-import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.toRestaurantTo;
-import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.toRestaurantWithMenuTo;
 import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
 
 @RestController
@@ -28,29 +30,33 @@ import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUti
 @Slf4j
 @Tag(name = "RestaurantController")
 @ApiResponses(@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content))
+@AllArgsConstructor
 public class RestaurantController extends AbstractRestaurantController {
+    private final ActualRestaurants actualRestaurants;
+    private final RestaurantSnapshot restaurantSnapshot;
+    private final MenuItemIndex menuItemIndex;
+    private final MenuItemPriceIndex menuItemPriceIndex;
+    private final Clock clock;
 
     static final String REST_URL = "/api/restaurants";
+    static final int MAX_LIMIT = 1000;
 
     @Operation(summary = "#getActive", description = "Get active restaurant by id")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = RestaurantTo.class))),
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @GetMapping("/{id}")
-    @Cacheable("restaurantTo")
     public RestaurantTo getActive(@PathVariable int id) {
         log.info("RestaurantController#getActive(id:{})", id);
-        return toRestaurantTo(checkNotFoundWithMessage(restaurantRepository.findActiveById(id),
-                String.format("Restaurant with id=%s not exist or hasn't actual menu", id)));
+        return actualRestaurants.getActive(new RestaurantDayKey(LocalDate.now(clock), id));
     }
 
     @Operation(summary = "#getAllActive", description = "Get all active restaurants")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantTo.class)))))
     @GetMapping
-    @Cacheable("restaurantTo")
-    public List<RestaurantTo> getAllActive() {
+    public ResponseEntity<byte[]> getAllActive(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("RestaurantController#getAllActive()");
-        return toRestaurantTo(restaurantRepository.findAllActive());
+        return toResponse(restaurantSnapshot.getAllActive(), acceptEncoding);
     }
 
     @Operation(summary = "#getWithActualMenu", description = "Get active restaurant by id with actual menu")
@@ -58,19 +64,52 @@ public class RestaurantController extends AbstractRestaurantController {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = RestaurantWithMenuTo.class))),
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @GetMapping("/{id}/with-actual-menu")
-    @Cacheable("restaurantWithMenuTo")
     public RestaurantWithMenuTo getWithActualMenu(@PathVariable int id) {
         log.info("RestaurantController#getWithActualMenu(id:{})", id);
-        return toRestaurantWithMenuTo(checkNotFoundWithMessage(restaurantRepository.findByIdWithActualMenu(id),
-                String.format("Restaurant with id=%s not exist or hasn't actual menu", id)));
+        return actualRestaurants.getWithMenu(new RestaurantDayKey(LocalDate.now(clock), id));
     }
 
     @Operation(summary = "#getAllWithActualMenu", description = "Get all active restaurants with actual menu")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = RestaurantWithMenuTo.class))))
     @GetMapping("/with-actual-menu")
-    @Cacheable("restaurantWithMenuTo")
-    public List<RestaurantWithMenuTo> getAllWithActualMenu() {
+    public ResponseEntity<byte[]> getAllWithActualMenu(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("RestaurantController#getAllWithActualMenu()");
-        return toRestaurantWithMenuTo(restaurantRepository.findAllWithActualMenu());
+        return toResponse(restaurantSnapshot.getAllWithActualMenu(), acceptEncoding);
+    }
+
+    @Operation(summary = "#search", description = "Find menu items by word prefixes, in menus of the date (today by default), grouped by restaurant")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantWithMenuTo.class)))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping("/search")
+    public List<RestaurantWithMenuTo> search(@RequestParam String query,
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(required = false) LocalDate date) {
+        log.info("RestaurantController#search(query:{}, date:{})", query, date);
+        checkNotFoundWithMessage(!MenuItemIndex.tokenize(query).isEmpty(), "Search query must contain a word");
+        return menuItemIndex.search(query, date == null ? LocalDate.now(clock) : date);
+    }
+
+    @Operation(summary = "#getActualMenuItemsByPrice", description = "Get menu items of all actual menus priced from {minPrice} to {maxPrice} inclusive, sorted by price")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = MenuItemWithRestaurantTo.class)))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping("/menu-items")
+    public List<MenuItemWithRestaurantTo> getActualMenuItemsByPrice(@RequestParam(defaultValue = "0") int minPrice,
+                                                                    @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int maxPrice,
+                                                                    @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                                    @RequestParam(defaultValue = "100") int limit) {
+        log.info("RestaurantController#getActualMenuItemsByPrice(minPrice:{}, maxPrice:{}, direction:{}, limit:{})", minPrice, maxPrice, direction, limit);
+        checkNotFoundWithMessage(minPrice <= maxPrice, String.format("minPrice=%d is greater than maxPrice=%d", minPrice, maxPrice));
+        checkNotFoundWithMessage(limit > 0 && limit <= MAX_LIMIT, String.format("limit must be from 1 to %d", MAX_LIMIT));
+        return menuItemPriceIndex.find(minPrice, maxPrice, direction.isAscending(), limit);
+    }
+
+    private static ResponseEntity<byte[]> toResponse(RestaurantSnapshot.Body body, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return RestaurantSnapshot.acceptsGzip(acceptEncoding) ?
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip()) :
+                response.body(body.getJson());
     }
 }
@@ -0,0 +1,14 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Cache key of a restaurant state on a menu date
+ */
+@Value
+public class RestaurantDayKey {
+    LocalDate date;
+    int restaurantId;
+}
@@ -0,0 +1,229 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.*;
+
+/**
+ * Ready-to-send JSON (plain and gzip) of the active restaurants lists for the current day.
+ * <p>
+ * Every {@link RestaurantChangedEvent} marks its restaurants as changed and bumps the version.
+ * The next read reloads only the changed restaurants in one batch, patches their serialized entries and swaps in a new snapshot;
+ * a new day switches to the snapshot {@link #prepare prepared} for it or rebuilds all of them.
+ * Reads in between touch neither the database nor Jackson.
+ * Invalidation runs after commit and after rollback: a snapshot built from uncommitted data never survives.
+ * The day and an MD5 of the snapshot content make its {@link #getVersion version}: the same data gives the same version
+ * on every instance and after a restart.
+ */
+@Component
+@Slf4j
+public class RestaurantSnapshot {
+    private final RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    // counts changes of this instance: a snapshot taken before the last one is not actual
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot current;
+    private volatile Snapshot next;
+
+    public RestaurantSnapshot(RestaurantWithMenuJdbcRepository restaurantWithMenuRepository, ObjectMapper objectMapper, Clock clock) {
+        this.restaurantWithMenuRepository = restaurantWithMenuRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        changed.addAll(event.getRestaurantIds());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Day and content hash of the current snapshot
+     */
+    public String getVersion() {
+        Snapshot snapshot = get();
+        return snapshot.date + "." + snapshot.contentHash;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split("\\s*;\\s*");
+            if (parts[0].equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a snapshot for a coming day, taken at its first read if no restaurant changes by then
+     */
+    public synchronized void prepare(LocalDate date, Collection<RestaurantWithMenuTo> restaurants) {
+        next = build(date, version.get(), new Entries(), restaurants);
+    }
+
+    public Body getAllActive() {
+        return get().allActive;
+    }
+
+    public Body getAllWithActualMenu() {
+        return get().allWithActualMenu;
+    }
+
+    private Snapshot get() {
+        LocalDate today = LocalDate.now(clock);
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.isActual(today, version.get())) return snapshot;
+        synchronized (this) {
+            // version is taken before the queries: a change committed meanwhile forces one more patch
+            long actualVersion = version.get();
+            snapshot = current;
+            if (snapshot == null || !snapshot.date.equals(today)) {
+                changed.clear();
+                if (next != null && next.isActual(today, actualVersion)) {
+                    snapshot = next;
+                    log.info("Restaurant snapshot for {} switched to prepared, version {}", today, actualVersion);
+                } else {
+                    snapshot = build(today, actualVersion, new Entries(), restaurantWithMenuRepository.findAll(today));
+                    log.info("Restaurant snapshot for {} rebuilt, version {}", today, actualVersion);
+                }
+                next = null;
+            } else if (snapshot.version != actualVersion) {
+                Entries entries = new Entries(snapshot.entries);
+                List<Integer> ids = new ArrayList<>();
+                for (Iterator<Integer> iterator = changed.iterator(); iterator.hasNext(); ) {
+                    int id = iterator.next();
+                    iterator.remove();
+                    ids.add(id);
+                    entries.active.remove(id);
+                    entries.withActualMenu.remove(id);
+                }
+                snapshot = build(today, actualVersion, entries, restaurantWithMenuRepository.findAll(ids, today));
+                log.debug("Restaurant snapshot for {} patched, version {}", today, actualVersion);
+            }
+            current = snapshot;
+            return snapshot;
+        }
+    }
+
+    private Snapshot build(LocalDate date, long version, Entries entries, Collection<RestaurantWithMenuTo> restaurants) {
+        restaurants.forEach(restaurant -> put(entries, restaurant));
+        Body allActive = toBody(entries.active.values());
+        Body allWithActualMenu = toBody(entries.withActualMenu.values());
+        return new Snapshot(date, version, entries, allActive, allWithActualMenu, md5(allActive.json, allWithActualMenu.json));
+    }
+
+    private void put(Entries entries, RestaurantWithMenuTo restaurant) {
+        entries.active.put(restaurant.id(), writeValue(toRestaurantTo(restaurant)));
+        if (hasMenuItems(restaurant)) {
+            entries.withActualMenu.put(restaurant.id(), writeValue(restaurant));
+        }
+    }
+
+    private byte[] writeValue(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid write to JSON:\n'" + value + "'", e);
+        }
+    }
+
+    // JSON array of already serialized elements, ordered by restaurant id
+    private static Body toBody(Collection<byte[]> elements) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        for (byte[] element : elements) {
+            if (json.size() > 1) json.write(',');
+            json.writeBytes(element);
+        }
+        json.write(']');
+        byte[] jsonBytes = json.toByteArray();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream(jsonBytes.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(jsonBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Body(jsonBytes, gzip.toByteArray());
+    }
+
+    private static String md5(byte[]... contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (byte[] content : contents) {
+                digest.update(content);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Body {
+        private final byte[] json;
+        private final byte[] gzip;
+    }
+
+    // serialized list elements by restaurant id; copied on patch, never changed after a snapshot is published
+    private static class Entries {
+        private final TreeMap<Integer, byte[]> active;
+        private final TreeMap<Integer, byte[]> withActualMenu;
+
+        private Entries() {
+            this.active = new TreeMap<>();
+            this.withActualMenu = new TreeMap<>();
+        }
+
+        private Entries(Entries entries) {
+            this.active = new TreeMap<>(entries.active);
+            this.withActualMenu = new TreeMap<>(entries.withActualMenu);
+        }
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class Snapshot {
+        private final LocalDate date;
+        private final long version;
+        private final Entries entries;
+        private final Body allActive;
+        private final Body allWithActualMenu;
+        private final String contentHash;
+
+        private boolean isActual(LocalDate today, long actualVersion) {
+            return version == actualVersion && date.equals(today);
+        }
+    }
+}
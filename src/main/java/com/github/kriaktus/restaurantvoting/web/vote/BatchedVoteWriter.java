@@ -0,0 +1,132 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.error.TooManyRequestsException;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind path: a voice is accepted into an in-memory queue and a background thread writes
+ * the queue to VOTE in JDBC batches, one transaction per batch (group commit).
+ * <p>
+ * The queue is bounded by {@code app.vote.batch.capacity}: while the database lags behind, voices beyond it are rejected with 429
+ * instead of growing the heap and the loss on a crash.
+ */
+@Component
+@ConditionalOnProperty(name = "app.vote.writer", havingValue = "batched")
+@Slf4j
+public class BatchedVoteWriter extends InMemoryVoteWriter {
+    static final String EXCEPTION_QUEUE_FULL = "Too many voices to write, retry later";
+
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final BlockingQueue<VoteEvent> queue;
+    // held by the thread which has taken voices from the queue until they are written
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public BatchedVoteWriter(VoteRepository voteRepository, RestaurantRepository restaurantRepository,
+                             JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                             @Value("${app.vote.batch.size:500}") int batchSize,
+                             @Value("${app.vote.batch.flush-interval-ms:50}") long flushIntervalMs,
+                             @Value("${app.vote.batch.capacity:100000}") int capacity) {
+        super(voteRepository, restaurantRepository, jdbcTemplate, transactionTemplate, eventPublisher);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = new Thread(this::run, "vote-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<VoteEvent> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            write(batch);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    @Override
+    protected void store(VoteEvent vote) {
+        if (!queue.offer(vote)) {
+            log.warn("Voices queue is full, voice {} rejected", vote);
+            throw new TooManyRequestsException(EXCEPTION_QUEUE_FULL, 1);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                VoteEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                writeLock.lock();
+                try {
+                    write(collectBatch(first));
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Voices batch write failed", e);
+            }
+        }
+    }
+
+    // waits for batchSize voices, but no longer than flushIntervalMs from the first one
+    private List<VoteEvent> collectBatch(VoteEvent first) throws InterruptedException {
+        List<VoteEvent> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == batchSize || remaining <= 0) break;
+            VoteEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void write(List<VoteEvent> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            merge(batch);
+            log.debug("{} voices written", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Voices batch of {} failed, writing one by one: {}", batch.size(), e.getMessage());
+            mergeOneByOne(batch);
+        }
+    }
+}
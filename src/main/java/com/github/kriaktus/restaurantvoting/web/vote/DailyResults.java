@@ -0,0 +1,75 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.DailyResultRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Final results of closed voting days.
+ * <p>
+ * A day is closed once it has passed: after {@link com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil#DEADLINE_CHANGE_VOICE}
+ * voices can't be changed, but users who haven't voted yet still may vote until the end of the day.
+ * The per-restaurant counts of a closed day are saved to DAILY_RESULT and never change afterwards,
+ * so they are cached without expiration. Only a restaurant deletion removes its rows (cascade): the cache is cleared
+ * after any {@link RestaurantChangedEvent}, remote ones included. Days missed by the close job are closed on first request.
+ */
+@Component
+@Slf4j
+public class DailyResults {
+    public static final String CACHE_NAME = "dailyResult";
+
+    private final DailyResultRepository dailyResultRepository;
+    private final VoteWriter voteWriter;
+    private final Clock clock;
+    private volatile LocalDate lastClosed;
+
+    public DailyResults(DailyResultRepository dailyResultRepository, VoteWriter voteWriter, Clock clock) {
+        this.dailyResultRepository = dailyResultRepository;
+        this.voteWriter = voteWriter;
+        this.clock = clock;
+    }
+
+    public static boolean isClosed(LocalDate date, Clock clock) {
+        return date.isBefore(LocalDate.now(clock));
+    }
+
+    @Scheduled(initialDelayString = "${app.vote.close-check-ms:60000}", fixedDelayString = "${app.vote.close-check-ms:60000}")
+    public void closeYesterday() {
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        if (yesterday.equals(lastClosed)) return;
+        closeIfAbsent(yesterday);
+        lastClosed = yesterday;
+    }
+
+    /**
+     * Must be called for closed days only
+     */
+    @Cacheable(CACHE_NAME)
+    public List<RestaurantVotesTo> get(LocalDate date) {
+        closeIfAbsent(date);
+        return dailyResultRepository.getByDate(date);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+    }
+
+    private void closeIfAbsent(LocalDate date) {
+        if (dailyResultRepository.existsByVotingDate(date)) return;
+        voteWriter.flush();
+        int restaurants = dailyResultRepository.saveFromVotes(date);
+        log.info("Voting day {} closed: {} restaurants", date, restaurants);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restaurant chosen by every user for one voting date, kept in memory
+ */
+class DayVotes {
+    final LocalDate date;
+    private final Map<Integer, Integer> restaurantByUser = new ConcurrentHashMap<>();
+
+    DayVotes(LocalDate date, Collection<UserVoteTo> votes) {
+        this.date = date;
+        votes.forEach(vote -> restaurantByUser.put(vote.getUserId(), vote.getRestaurantId()));
+    }
+
+    /**
+     * @return false if user has already voted
+     */
+    boolean add(int userId, int restaurantId) {
+        return restaurantByUser.putIfAbsent(userId, restaurantId) == null;
+    }
+
+    /**
+     * @return previous restaurant id, null if user hasn't voted yet
+     */
+    Integer replace(int userId, int restaurantId) {
+        return restaurantByUser.replace(userId, restaurantId);
+    }
+
+    /**
+     * Undo a voice which can't be written: back to the {@code stored} restaurant or no voice if it's {@code null}
+     *
+     * @return false if user's voice has been changed since
+     */
+    boolean restore(int userId, int rejectedRestaurantId, Integer stored) {
+        return stored == null ? restaurantByUser.remove(userId, rejectedRestaurantId) :
+                restaurantByUser.replace(userId, rejectedRestaurantId, stored);
+    }
+
+    Integer get(int userId) {
+        return restaurantByUser.get(userId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.error.IllegalRequestDataException;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithId;
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_VOTE_ALREADY_EXIST;
+
+/**
+ * Base of write paths which accept a voice in memory and write it to VOTE later.
+ * <p>
+ * One voice per user per day is enforced against {@link DayVotes}, loaded from VOTE for the voting date.
+ * The 11:00 deadline is checked by the caller when the voice is accepted, not when it is written.
+ */
+@Slf4j
+public abstract class InMemoryVoteWriter implements VoteWriter {
+    static final String MERGE_VOTE_SQL = "MERGE INTO vote (user_id, voting_date, restaurant_id) KEY (user_id, voting_date) VALUES (?, ?, ?)";
+    private static final String SELECT_RESTAURANT_SQL = "SELECT restaurant_id FROM vote WHERE user_id=? AND voting_date=?";
+
+    protected final VoteRepository voteRepository;
+    protected final RestaurantRepository restaurantRepository;
+    protected final JdbcTemplate jdbcTemplate;
+    protected final TransactionTemplate transactionTemplate;
+    protected final ApplicationEventPublisher eventPublisher;
+    private volatile DayVotes dayVotes;
+
+    protected InMemoryVoteWriter(VoteRepository voteRepository, RestaurantRepository restaurantRepository,
+                                 JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        this.voteRepository = voteRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public VoteTo create(int userId, LocalDate date, int restaurantId) {
+        checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId);
+        DayVotes votes = forDate(date);
+        checkNotFoundWithMessage(votes.add(userId, restaurantId), EXCEPTION_VOTE_ALREADY_EXIST);
+        accept(votes, new VoteEvent(date, userId, null, restaurantId));
+        return new VoteTo(null, date, restaurantId);
+    }
+
+    @Override
+    public int update(int userId, LocalDate date, int restaurantId) {
+        checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId);
+        DayVotes votes = forDate(date);
+        Integer previous = checkNotFoundWithMessage(votes.replace(userId, restaurantId), "Today's voice doesn't exist");
+        accept(votes, new VoteEvent(date, userId, previous, restaurantId));
+        return previous;
+    }
+
+    @Override
+    public Optional<VoteTo> findAccepted(int userId, LocalDate date) {
+        DayVotes votes = dayVotes;
+        return votes == null || !votes.date.equals(date) ? Optional.empty() :
+                Optional.ofNullable(votes.get(userId)).map(restaurantId -> new VoteTo(null, date, restaurantId));
+    }
+
+    /**
+     * Keep accepted voice until it is written, called before the voice {@link VoteEvent} is published.
+     * May reject the voice by an exception, then it's not accepted
+     */
+    protected abstract void store(VoteEvent vote);
+
+    private void accept(DayVotes votes, VoteEvent vote) {
+        try {
+            store(vote);
+        } catch (RuntimeException e) {
+            votes.restore(vote.getUserId(), vote.getRestaurantId(), vote.getPreviousRestaurantId());
+            throw e;
+        }
+        eventPublisher.publishEvent(vote);
+    }
+
+    private DayVotes forDate(LocalDate date) {
+        DayVotes votes = dayVotes;
+        if (votes != null && votes.date.equals(date)) return votes;
+        synchronized (this) {
+            if (dayVotes == null || dayVotes.date.isBefore(date)) {
+                dayVotes = new DayVotes(date, voteRepository.getUserVotesByDate(date));
+            }
+            if (!dayVotes.date.equals(date)) {
+                throw new IllegalRequestDataException("Voting for " + date + " is closed");
+            }
+            return dayVotes;
+        }
+    }
+
+    /**
+     * Write voices in one transaction, all or nothing
+     */
+    protected void merge(List<VoteEvent> votes) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(MERGE_VOTE_SQL, votes, votes.size(), (ps, vote) -> {
+                    ps.setInt(1, vote.getUserId());
+                    ps.setDate(2, Date.valueOf(vote.getDate()));
+                    ps.setInt(3, vote.getRestaurantId());
+                }));
+    }
+
+    /**
+     * Write voices one by one: e.g. restaurant deleted after the voice was accepted, keep the rest
+     */
+    protected void mergeOneByOne(List<VoteEvent> votes) {
+        for (VoteEvent vote : votes) {
+            try {
+                merge(List.of(vote));
+            } catch (RuntimeException e) {
+                log.error("Voice {} dropped: {}", vote, e.getMessage());
+                undo(vote);
+            }
+        }
+    }
+
+    // the voice has been counted on accept: return accepted voices, tally and voted users to the stored voice
+    private void undo(VoteEvent vote) {
+        DayVotes votes = dayVotes;
+        if (votes == null || !votes.date.equals(vote.getDate())) return;
+        try {
+            Integer stored = jdbcTemplate.query(SELECT_RESTAURANT_SQL, rs -> rs.next() ? rs.getInt(1) : null,
+                    vote.getUserId(), Date.valueOf(vote.getDate()));
+            if (votes.restore(vote.getUserId(), vote.getRestaurantId(), stored)) {
+                eventPublisher.publishEvent(new VoteEvent(vote.getDate(), vote.getUserId(), vote.getRestaurantId(), stored));
+            }
+        } catch (RuntimeException e) {
+            log.error("Dropped voice {} is not undone: {}", vote, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Journaled path: a voice is durable once appended to the memory-mapped {@link VoteJournal},
+ * without a database commit. Periodic checkpoints write voices journaled since the previous one
+ * to VOTE in a single batch (last voice of a user per day by journal sequence number only) and clear their journal segment.
+ * <p>
+ * On startup voices left in the journal by a crash are written to VOTE before the application serves requests.
+ * Mapped pages survive a process crash; {@code sync-ms} bounds what an OS crash can lose.
+ */
+@Component
+@ConditionalOnProperty(name = "app.vote.writer", havingValue = "journal")
+@Slf4j
+public class JournalVoteWriter extends InMemoryVoteWriter {
+    private final VoteJournal journal;
+    // appends share the read lock, rotation takes the write lock
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    // voices appended to the active segment, by user and date
+    private volatile Map<Long, Journaled> pending = new ConcurrentHashMap<>();
+
+    public JournalVoteWriter(VoteRepository voteRepository, RestaurantRepository restaurantRepository,
+                             JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                             @Value("${app.vote.journal.dir}") Path dir,
+                             @Value("${app.vote.journal.capacity:1000000}") int capacity) {
+        super(voteRepository, restaurantRepository, jdbcTemplate, transactionTemplate, eventPublisher);
+        this.journal = new VoteJournal(dir, capacity);
+        recover();
+    }
+
+    @Override
+    protected void store(VoteEvent vote) {
+        while (true) {
+            rotationLock.readLock().lock();
+            try {
+                long sequence = journal.append(vote);
+                if (sequence > 0) {
+                    // concurrent appends of a user may complete in any order, keep the later appended one
+                    pending.merge(key(vote), new Journaled(sequence, vote), (old, appended) -> old.sequence > appended.sequence ? old : appended);
+                    return;
+                }
+            } finally {
+                rotationLock.readLock().unlock();
+            }
+            // active segment is full
+            checkpoint();
+        }
+    }
+
+    @Override
+    public void flush() {
+        checkpoint();
+    }
+
+    @Scheduled(initialDelayString = "${app.vote.journal.checkpoint-ms:5000}", fixedDelayString = "${app.vote.journal.checkpoint-ms:5000}")
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            Map<Long, Journaled> votes;
+            rotationLock.writeLock().lock();
+            try {
+                if (pending.isEmpty() && journal.size() == 0) return;
+                votes = pending;
+                pending = new ConcurrentHashMap<>();
+                journal.rotate();
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            List<VoteEvent> batch = votes.values().stream().map(Journaled::vote).toList();
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.error("Checkpoint of {} voices failed, keep them for the next one: {}", batch.size(), e.getMessage());
+                requeue(batch);
+            }
+            journal.clearInactive();
+            log.debug("Checkpoint: {} voices written", batch.size());
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.vote.journal.sync-ms:100}")
+    public void sync() {
+        journal.force();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+        journal.close();
+    }
+
+    // voices replaced since the failed checkpoint are newer, skip them.
+    // Appends are excluded: a requeued voice gets a later sequence number than theirs
+    private void requeue(List<VoteEvent> batch) {
+        rotationLock.writeLock().lock();
+        try {
+            for (VoteEvent vote : batch) {
+                if (pending.containsKey(key(vote))) continue;
+                long sequence = journal.append(vote);
+                if (sequence == 0) {
+                    log.error("Vote journal is full, voice {} is kept in memory only", vote);
+                }
+                pending.put(key(vote), new Journaled(sequence, vote));
+            }
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private void recover() {
+        Map<Long, VoteEvent> votes = new LinkedHashMap<>();
+        journal.replay().forEach(vote -> votes.put(key(vote), vote));
+        if (!votes.isEmpty()) {
+            write(new ArrayList<>(votes.values()));
+            log.info("Vote journal recovered: {} voices written", votes.size());
+        }
+        journal.clear();
+    }
+
+    private void write(List<VoteEvent> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            merge(batch);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Voices batch of {} failed, writing one by one: {}", batch.size(), e.getMessage());
+            mergeOneByOne(batch);
+        }
+    }
+
+    private static long key(VoteEvent vote) {
+        return vote.getDate().toEpochDay() << 32 | vote.getUserId();
+    }
+
+    private record Journaled(long sequence, VoteEvent vote) {
+    }
+}
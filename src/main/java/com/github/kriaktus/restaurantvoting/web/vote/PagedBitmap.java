@@ -0,0 +1,45 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free set of non-negative ints.
+ * <p>
+ * Bits are kept in 8 KB pages (65536 ids) allocated on first set, so sparse or clustered ids
+ * take memory only for the ranges in use: 200k sequential user ids fit in 4 pages.
+ */
+class PagedBitmap {
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+
+    private final AtomicReferenceArray<AtomicLongArray> pages = new AtomicReferenceArray<>((Integer.MAX_VALUE >>> PAGE_BITS) + 1);
+
+    void set(int value) {
+        int pageIndex = value >>> PAGE_BITS;
+        AtomicLongArray page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicLongArray(WORDS_PER_PAGE));
+            page = pages.get(pageIndex);
+        }
+        long mask = 1L << value;
+        page.getAndAccumulate(wordIndex(value), mask, (word, bit) -> word | bit);
+    }
+
+    void clear(int value) {
+        AtomicLongArray page = pages.get(value >>> PAGE_BITS);
+        if (page != null) {
+            long mask = ~(1L << value);
+            page.getAndAccumulate(wordIndex(value), mask, (word, bits) -> word & bits);
+        }
+    }
+
+    boolean contains(int value) {
+        AtomicLongArray page = pages.get(value >>> PAGE_BITS);
+        return page != null && (page.get(wordIndex(value)) & 1L << value) != 0;
+    }
+
+    private static int wordIndex(int value) {
+        return (value & ((1 << PAGE_BITS) - 1)) >>> 6;
+    }
+}
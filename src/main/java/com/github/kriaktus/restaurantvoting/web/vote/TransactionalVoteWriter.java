@@ -0,0 +1,49 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithId;
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.checkNotFoundWithMessage;
+
+/**
+ * Default write path: every voice is a single statement in its own transaction
+ */
+@Component
+@ConditionalOnProperty(name = "app.vote.writer", havingValue = "transactional", matchIfMissing = true)
+@AllArgsConstructor
+public class TransactionalVoteWriter implements VoteWriter {
+    private final VoteRepository voteRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public VoteTo create(int userId, LocalDate date, int restaurantId) {
+        VoteTo created = new VoteTo(checkNotFoundWithId(voteRepository.insert(userId, date, restaurantId), restaurantId), date, restaurantId);
+        eventPublisher.publishEvent(new VoteEvent(date, userId, null, restaurantId));
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public int update(int userId, LocalDate date, int restaurantId) {
+        Optional<Integer> previousRestaurantId = voteRepository.updateRestaurant(userId, date, restaurantId);
+        if (previousRestaurantId.isEmpty()) {
+            // error path only: tell a missing restaurant from a missing voice
+            checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId);
+        }
+        int previous = checkNotFoundWithMessage(previousRestaurantId, "Today's voice doesn't exist");
+        eventPublisher.publishEvent(new VoteEvent(date, userId, previous, restaurantId));
+        return previous;
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Nightly moves past days from VOTE to VOTE_ARCHIVE, one transaction per day,
+ * so VOTE and its indexes hold the current day only.
+ * {@link VoteRepository#findByUserIdAndDate} reads archived days transparently.
+ */
+@Component
+@Slf4j
+public class VoteArchiver {
+    private final VoteRepository voteRepository;
+    private final VoteWriter voteWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public VoteArchiver(VoteRepository voteRepository, VoteWriter voteWriter, TransactionTemplate transactionTemplate, Clock clock) {
+        this.voteRepository = voteRepository;
+        this.voteWriter = voteWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${app.vote.archive-cron:0 30 0 * * *}")
+    public void archive() {
+        voteWriter.flush();
+        for (LocalDate date : voteRepository.getDatesBefore(LocalDate.now(clock))) {
+            Integer moved = transactionTemplate.execute(status -> {
+                int copied = voteRepository.copyToArchive(date);
+                voteRepository.deleteByDate(date);
+                return copied;
+            });
+            log.info("Voices for {} archived: {}", date, moved);
+        }
+    }
+}
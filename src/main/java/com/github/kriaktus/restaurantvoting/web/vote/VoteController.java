@@ -1,11 +1,15 @@
 package com.github.kriaktus.restaurantvoting.web.vote;
 
 import com.github.kriaktus.restaurantvoting.model.Vote;
-import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
 import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import com.github.kriaktus.restaurantvoting.to.VoteHistoryTo;
 import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import com.github.kriaktus.restaurantvoting.util.VoteUtil;
 import com.github.kriaktus.restaurantvoting.web.AuthUser;
+import com.github.kriaktus.restaurantvoting.web.IdempotentRequests;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,16 +22,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.time.Clock;
 import java.time.LocalDate;
+import java.util.List;
 
 import static com.github.kriaktus.restaurantvoting.util.VoteUtil.toVoteTo;
 import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.*;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_VOTE_ALREADY_EXIST;
 
 @RestController
 @RequestMapping(value = VoteController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -38,9 +44,16 @@ import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUti
 public class VoteController {
 
     static final String REST_URL = "/api/votes";
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final LocalDate HISTORY_START_CURSOR = LocalDate.of(9999, 12, 31);
 
     private VoteRepository voteRepository;
-    private RestaurantRepository restaurantRepository;
+    private VoteWriter voteWriter;
+    private VoteTally voteTally;
+    private VoteTallyStream voteTallyStream;
+    private DailyResults dailyResults;
+    private VotedUsers votedUsers;
+    private IdempotentRequests idempotentRequests;
     private Clock clock;
 
     @Operation(summary = "#getToday", description = "Get authorized user today's voice")
@@ -51,9 +64,15 @@ public class VoteController {
     public VoteTo getToday(@AuthenticationPrincipal AuthUser authUser) {
         log.info("VoteController#getToday(authUser:{})", authUser);
         int userId = authUser.id();
-        return toVoteTo(checkNotFoundWithMessage(voteRepository.getByUserIdAndDate(userId, LocalDate.now()),
-                String.format("Voice for date=%s to user with id=%s not found", LocalDate.now(), userId))
-        );
+        LocalDate today = LocalDate.now(clock);
+        String notFoundMessage = String.format("Voice for date=%s to user with id=%s not found", today, userId);
+        if (votedUsers.covers(today)) {
+            checkNotFoundWithMessage(votedUsers.hasVoted(today, userId), notFoundMessage);
+        }
+        //  an accepted voice is newer than the written one
+        return checkNotFoundWithMessage(voteWriter.findAccepted(userId, today)
+                        .or(() -> voteRepository.getByUserIdAndDate(userId, today).map(VoteUtil::toVoteTo)),
+                notFoundMessage);
     }
 
     @Operation(summary = "#getByDate", description = "Get authorized user's voice by date")
@@ -64,37 +83,84 @@ public class VoteController {
     public VoteTo getByDate(@AuthenticationPrincipal AuthUser authUser, @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("date") LocalDate date) {
         log.info("VoteController#getByDate(authUser:{})", authUser);
         int userId = authUser.id();
-        return toVoteTo(checkNotFoundWithMessage(voteRepository.getByUserIdAndDate(userId, date),
+        return toVoteTo(checkNotFoundWithMessage(voteRepository.findByUserIdAndDate(userId, date, LocalDate.now(clock)),
                 String.format("Voice for date=%s to user with id=%s not found", date, userId))
         );
     }
 
-    @Operation(summary = "#createWithLocation", description = "Vote. Only one voice by day")
+    @Operation(summary = "#getHistory", description = "Get authorized user's voices, newest first, by pages. Pass `next` of a page as `cursor` to get the next one")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = VoteHistoryTo.class))))
+    @GetMapping("/history")
+    public VoteHistoryTo getHistory(@AuthenticationPrincipal AuthUser authUser,
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(required = false) LocalDate cursor,
+                                    @RequestParam(defaultValue = "20") int size) {
+        log.info("VoteController#getHistory(authUser:{}, cursor:{}, size:{})", authUser, cursor, size);
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        LocalDate before = cursor == null ? HISTORY_START_CURSOR : cursor;
+        List<Vote> votes = voteRepository.getHistoryPage(authUser.id(), before, limit + 1);
+        boolean hasNext = votes.size() > limit;
+        List<VoteTo> page = VoteUtil.getTos(hasNext ? votes.subList(0, limit) : votes);
+        return new VoteHistoryTo(page, hasNext ? page.get(limit - 1).getVotingDate().toString() : null);
+    }
+
+    @Operation(summary = "#getTodayTally", description = "Get today's voices count by restaurant, most voted first")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantVotesTo.class)))))
+    @GetMapping("/today/tally")
+    public List<RestaurantVotesTo> getTodayTally() {
+        log.info("VoteController#getTodayTally()");
+        return voteTally.get(LocalDate.now(clock));
+    }
+
+    @Operation(summary = "#streamTodayTally", description = "Subscribe to today's voices count: full tally first, then changed restaurants at most once per interval")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)))
+    @GetMapping(value = "/today/tally/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTodayTally() {
+        log.info("VoteController#streamTodayTally()");
+        return voteTallyStream.subscribe();
+    }
+
+    @Operation(summary = "#getResults", description = "Get final voices count of a closed day (before today), most voted first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantVotesTo.class)))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
+    @GetMapping("/results")
+    public List<RestaurantVotesTo> getResults(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("date") LocalDate date) {
+        log.info("VoteController#getResults(date:{})", date);
+        checkNotFoundWithMessage(DailyResults.isClosed(date, clock), String.format("Voting for date=%s is not closed yet", date));
+        return dailyResults.get(date);
+    }
+
+    @Operation(summary = "#createWithLocation", description = "Vote. Only one voice by day. A retry with the same Idempotency-Key gets the original response")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = VoteTo.class))),
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @PostMapping
-    @Transactional
-    public ResponseEntity<VoteTo> createWithLocation(@AuthenticationPrincipal AuthUser authUser, @RequestParam int restaurantId) {
-        log.info("VoteController#createWithLocation(authUser:{}, restaurantId:{})", authUser, restaurantId);
-        int userId = authUser.id();
-        checkNotFoundWithMessage(voteRepository.getByUserIdAndDate(userId, LocalDate.now()).isEmpty(), "Today's voice already exist");
-        Vote created = voteRepository.save(new Vote(userId, LocalDate.now(), checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId)));
-        URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath().path(REST_URL + "/today").build().toUri();
-        return ResponseEntity.created(uriOfNewResource).body(toVoteTo(created));
+    public ResponseEntity<VoteTo> createWithLocation(@AuthenticationPrincipal AuthUser authUser, @RequestParam int restaurantId,
+                                                     @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        log.info("VoteController#createWithLocation(authUser:{}, restaurantId:{}, idempotencyKey:{})", authUser, restaurantId, idempotencyKey);
+        return idempotentRequests.execute(idempotencyKey, authUser.id(), "POST restaurantId=" + restaurantId, () -> {
+            LocalDate today = LocalDate.now(clock);
+            if (votedUsers.covers(today)) {
+                checkNotFoundWithMessage(!votedUsers.hasVoted(today, authUser.id()), EXCEPTION_VOTE_ALREADY_EXIST);
+            }
+            VoteTo created = voteWriter.create(authUser.id(), today, restaurantId);
+            URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath().path(REST_URL + "/today").build().toUri();
+            return ResponseEntity.created(uriOfNewResource).body(created);
+        });
     }
 
-    @Operation(summary = "#update", description = "Change voice. Doesn't work after 11:00")
+    @Operation(summary = "#update", description = "Change voice. Doesn't work after 11:00. A retry with the same Idempotency-Key gets the original response")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = VoteTo.class))),
             @ApiResponse(responseCode = "422", description = "Unprocessable Entity", content = @Content)})
     @PutMapping("/today")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @Transactional
-    public void update(@AuthenticationPrincipal AuthUser authUser, @RequestParam int restaurantId) {
-        log.info("VoteController#update(authUser:{}, restaurantId:{})", authUser, restaurantId);
-        compareCurrentTimeWithDeadline(clock);
-        Vote vote = checkNotFoundWithMessage(voteRepository.getByUserIdAndDate(authUser.id(), LocalDate.now(clock)), "Today's voice doesn't exist");
-        vote.setRestaurant(checkNotFoundWithId(restaurantRepository.findById(restaurantId), restaurantId));
+    public void update(@AuthenticationPrincipal AuthUser authUser, @RequestParam int restaurantId,
+                       @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        log.info("VoteController#update(authUser:{}, restaurantId:{}, idempotencyKey:{})", authUser, restaurantId, idempotencyKey);
+        idempotentRequests.execute(idempotencyKey, authUser.id(), "PUT restaurantId=" + restaurantId, () -> {
+            compareCurrentTimeWithDeadline(clock);
+            return voteWriter.update(authUser.id(), LocalDate.now(clock), restaurantId);
+        });
     }
 }
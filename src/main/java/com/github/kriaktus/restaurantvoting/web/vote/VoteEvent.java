@@ -0,0 +1,19 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a user's voice is created or changed.
+ * <p>
+ * {@code previousRestaurantId} is {@code null} for a new voice.
+ * {@code restaurantId} is {@code null} when an accepted new voice is dropped as it can't be written.
+ */
+@Value
+public class VoteEvent {
+    LocalDate date;
+    int userId;
+    Integer previousRestaurantId;
+    Integer restaurantId;
+}
@@ -0,0 +1,191 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only journal of accepted voices in two memory-mapped segment files.
+ * <p>
+ * Record (24 bytes): userId, voting date (epoch day), restaurantId, sequence number, checksum.
+ * Appenders reserve slots with a CAS and write them concurrently; a zeroed or torn slot fails the checksum and is skipped.
+ * Concurrent appenders may fill slots out of order, so records are ordered by their sequence number, not by slots.
+ * Voices go to the active segment; {@link #rotate()} switches to the other, cleared one,
+ * so the previous segment can be written to VOTE and cleared while appends go on.
+ * <p>
+ * Not thread-safe against {@link #rotate()}: callers exclude appends while rotating.
+ */
+class VoteJournal implements Closeable {
+    static final int RECORD_SIZE = 24;
+    private static final int HEADER_SIZE = 64;
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final Segment[] segments = new Segment[2];
+    // journal is cleared on startup, so numbers of a run don't meet the previous ones
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile int active;
+
+    VoteJournal(Path dir, int capacity) {
+        try {
+            Files.createDirectories(dir);
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = new Segment(dir.resolve("vote-journal-" + i), capacity);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open vote journal in " + dir, e);
+        }
+        active = segments[0].generation >= segments[1].generation ? 0 : 1;
+    }
+
+    /**
+     * @return voices from both segments in the order of their sequence numbers, oldest first
+     */
+    List<VoteEvent> replay() {
+        List<Record> records = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.generation > 0) {
+                segment.readTo(records);
+            }
+        }
+        records.sort(Comparator.comparingLong(Record::sequence));
+        return records.stream().map(Record::vote).toList();
+    }
+
+    /**
+     * @return sequence number of the appended record, greater for a later append; 0 if active segment is full
+     */
+    long append(VoteEvent vote) {
+        return segments[active].append(vote.getUserId(), (int) vote.getDate().toEpochDay(), vote.getRestaurantId(), sequence);
+    }
+
+    /**
+     * Make inactive (cleared) segment active
+     */
+    void rotate() {
+        Segment previous = segments[active];
+        int next = 1 - active;
+        segments[next].start(Math.max(previous.generation, segments[next].generation) + 1);
+        active = next;
+    }
+
+    void clearInactive() {
+        segments[1 - active].clear();
+    }
+
+    void clear() {
+        segments[0].clear();
+        segments[1].clear();
+    }
+
+    int size() {
+        return segments[active].size();
+    }
+
+    void force() {
+        segments[active].buffer.force();
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private static class Segment {
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger next = new AtomicInteger();
+        // 0 for a cleared segment
+        private volatile long generation;
+        // opened with records of a previous run: their extent is unknown
+        private boolean recovered;
+
+        private Segment(Path file, int capacity) throws IOException {
+            this.capacity = capacity;
+            try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            }
+            generation = buffer.getLong(0);
+            recovered = generation > 0;
+        }
+
+        private void start(long generation) {
+            this.generation = generation;
+            buffer.putLong(0, generation);
+        }
+
+        // concurrent first appends to a cleared journal start it once
+        private synchronized void startIfCleared() {
+            if (generation == 0) {
+                start(1);
+            }
+        }
+
+        private long append(int userId, int epochDay, int restaurantId, AtomicLong sequence) {
+            if (generation == 0) {
+                startIfCleared();
+            }
+            int slot = next.getAndIncrement();
+            if (slot >= capacity) return 0;
+            long number = sequence.incrementAndGet();
+            int offset = HEADER_SIZE + slot * RECORD_SIZE;
+            buffer.putInt(offset, userId);
+            buffer.putInt(offset + 4, epochDay);
+            buffer.putInt(offset + 8, restaurantId);
+            buffer.putLong(offset + 12, number);
+            buffer.putInt(offset + 20, checksum(userId, epochDay, restaurantId, number));
+            return number;
+        }
+
+        private int size() {
+            return Math.min(next.get(), capacity);
+        }
+
+        private void readTo(List<Record> records) {
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = HEADER_SIZE + slot * RECORD_SIZE;
+                int userId = buffer.getInt(offset);
+                int epochDay = buffer.getInt(offset + 4);
+                int restaurantId = buffer.getInt(offset + 8);
+                long number = buffer.getLong(offset + 12);
+                if (buffer.getInt(offset + 20) == checksum(userId, epochDay, restaurantId, number)) {
+                    records.add(new Record(number, new VoteEvent(LocalDate.ofEpochDay(epochDay), userId, null, restaurantId)));
+                }
+            }
+        }
+
+        private void clear() {
+            int end = HEADER_SIZE + (recovered ? capacity : size()) * RECORD_SIZE;
+            for (int offset = 0; offset < end; offset += ZEROS.length) {
+                buffer.put(offset, ZEROS, 0, Math.min(ZEROS.length, end - offset));
+            }
+            buffer.force();
+            generation = 0;
+            recovered = false;
+            next.set(0);
+        }
+
+        // never 0, so a zeroed slot is invalid
+        private static int checksum(int userId, int epochDay, int restaurantId, long number) {
+            int hash = ((userId * 31 + epochDay) * 31 + restaurantId) * 31 + Long.hashCode(number);
+            hash ^= hash >>> 16;
+            return hash == 0 ? 1 : hash;
+        }
+    }
+
+    private record Record(long sequence, VoteEvent vote) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory per-restaurant voices count for the current day.
+ * <p>
+ * Rebuilt from VOTE on startup, then kept up to date by committed {@link VoteEvent}s,
+ * so reads never touch the database. A new day starts from an empty tally.
+ */
+@Component
+@Slf4j
+public class VoteTally {
+    private static final Comparator<RestaurantVotesTo> BY_VOTES_DESC =
+            Comparator.comparingLong(RestaurantVotesTo::getVotes).reversed().thenComparingInt(RestaurantVotesTo::getRestaurantId);
+
+    private final VoteRepository voteRepository;
+    private final Clock clock;
+    private volatile DayTally current;
+
+    public VoteTally(VoteRepository voteRepository, Clock clock) {
+        this.voteRepository = voteRepository;
+        this.clock = clock;
+        this.current = new DayTally(LocalDate.now(clock));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        DayTally tally = new DayTally(LocalDate.now(clock));
+        voteRepository.countByDate(tally.date)
+                .forEach(count -> tally.counters.computeIfAbsent(count.getRestaurantId(), id -> new LongAdder()).add(count.getVotes()));
+        current = tally;
+        log.info("Vote tally for {} rebuilt: {} restaurants", tally.date, tally.counters.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVote(VoteEvent event) {
+        DayTally tally = forDate(event.getDate());
+        if (tally == null) return;
+        if (event.getPreviousRestaurantId() != null) {
+            tally.counter(event.getPreviousRestaurantId()).decrement();
+        }
+        if (event.getRestaurantId() != null) {
+            tally.counter(event.getRestaurantId()).increment();
+        }
+    }
+
+    public List<RestaurantVotesTo> get(LocalDate date) {
+        DayTally tally = forDate(date);
+        if (tally == null) return List.of();
+        return tally.counters.entrySet().stream()
+                .map(entry -> new RestaurantVotesTo(entry.getKey(), entry.getValue().sum()))
+                .filter(count -> count.getVotes() > 0)
+                .sorted(BY_VOTES_DESC)
+                .toList();
+    }
+
+    /**
+     * Current day's voices count of given restaurants, zero counts included
+     */
+    public List<RestaurantVotesTo> getCurrent(Collection<Integer> restaurantIds) {
+        DayTally tally = current;
+        return restaurantIds.stream()
+                .map(id -> {
+                    LongAdder counter = tally.counters.get(id);
+                    return new RestaurantVotesTo(id, counter == null ? 0 : counter.sum());
+                })
+                .sorted(BY_VOTES_DESC)
+                .toList();
+    }
+
+    // null for a date that has already rolled over
+    private DayTally forDate(LocalDate date) {
+        DayTally tally = current;
+        if (tally.date.equals(date)) return tally;
+        if (date.isBefore(tally.date)) return null;
+        synchronized (this) {
+            if (current.date.isBefore(date)) {
+                current = new DayTally(date);
+            }
+            return current.date.equals(date) ? current : null;
+        }
+    }
+
+    private static class DayTally {
+        private final LocalDate date;
+        private final Map<Integer, LongAdder> counters = new ConcurrentHashMap<>();
+
+        private DayTally(LocalDate date) {
+            this.date = date;
+        }
+
+        private LongAdder counter(int restaurantId) {
+            return counters.computeIfAbsent(restaurantId, id -> new LongAdder());
+        }
+    }
+}
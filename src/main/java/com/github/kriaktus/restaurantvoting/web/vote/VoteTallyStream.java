@@ -0,0 +1,220 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes today's tally changes to SSE subscribers.
+ * <p>
+ * Committed voices only mark restaurants as changed; a single ticker thread collects
+ * their new counts at most once per interval and queues them to every subscriber.
+ * Sender threads write the queues; a subscriber whose queue is full has fallen behind and is dropped.
+ * A send is blocking, so a client that stopped reading holds a sender thread: a send not finished
+ * within {@code send-timeout-ms} evicts the subscriber on the next tick and interrupts its thread.
+ * Other subscribers wait only while every sender thread is held this way, at most for that timeout and a tick.
+ * Idle connections hold no thread: emitters live in async requests until timeout or client disconnect.
+ */
+@Component
+@Slf4j
+public class VoteTallyStream {
+    static final String TALLY_EVENT = "tally";
+    static final String CHANGE_EVENT = "change";
+
+    private final VoteTally voteTally;
+    private final Clock clock;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final long heartbeatTicks;
+    private final int maxPending;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService sender;
+    private long idleTicks;
+
+    public VoteTallyStream(VoteTally voteTally, Clock clock,
+                           @Value("${app.vote.stream.interval-ms:1000}") long intervalMs,
+                           @Value("${app.vote.stream.heartbeat-ms:30000}") long heartbeatMs,
+                           @Value("${app.vote.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${app.vote.stream.send-timeout-ms:5000}") long sendTimeoutMs,
+                           @Value("${app.vote.stream.sender-threads:4}") int senderThreads,
+                           @Value("${app.vote.stream.max-pending:16}") int maxPending) {
+        this.voteTally = voteTally;
+        this.clock = clock;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.heartbeatTicks = Math.max(1, heartbeatMs / intervalMs);
+        this.maxPending = maxPending;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("vote-stream"));
+        // at most one task per subscriber is queued
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemon("vote-stream-sender"));
+        ticker.scheduleWithFixedDelay(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        try {
+            // not started yet, the emitter only buffers it: sent on the request thread
+            emitter.send(SseEmitter.event().name(TALLY_EVENT).data(voteTally.get(LocalDate.now(clock)), MediaType.APPLICATION_JSON));
+            subscribers.add(subscriber);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVote(VoteEvent event) {
+        if (event.getPreviousRestaurantId() != null) {
+            changed.add(event.getPreviousRestaurantId());
+        }
+        if (event.getRestaurantId() != null) {
+            changed.add(event.getRestaurantId());
+        }
+    }
+
+    void tick() {
+        try {
+            long now = System.nanoTime();
+            subscribers.forEach(subscriber -> subscriber.evictIfStalled(now));
+            if (changed.isEmpty()) {
+                if (++idleTicks >= heartbeatTicks) {
+                    idleTicks = 0;
+                    broadcast(() -> SseEmitter.event().comment("heartbeat"));
+                }
+                return;
+            }
+            idleTicks = 0;
+            List<Integer> restaurantIds = new ArrayList<>(changed);
+            changed.removeAll(restaurantIds);
+            List<RestaurantVotesTo> counts = voteTally.getCurrent(restaurantIds);
+            broadcast(() -> SseEmitter.event().name(CHANGE_EVENT).data(counts, MediaType.APPLICATION_JSON));
+        } catch (RuntimeException e) {
+            log.error("Vote tally stream tick failed", e);
+        }
+    }
+
+    // an event builder is mutated by sending, so every subscriber gets its own
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        log.debug("Drop vote tally subscriber: {}", e.getMessage());
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(e);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> pending;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // the thread blocked in the current send, guarded by this
+        private Thread sendingThread;
+        private long sendStartedNanos;
+        private volatile boolean evicted;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(maxPending);
+        }
+
+        private void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!pending.offer(event)) {
+                drop(this, new IllegalStateException("Subscriber fell behind by " + maxPending + " events"));
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                for (Supplier<SseEmitter.SseEventBuilder> event; (event = pending.poll()) != null; ) {
+                    started();
+                    try {
+                        emitter.send(event.get());
+                    } finally {
+                        finished();
+                    }
+                    if (evicted) throw new IllegalStateException("Send is not finished in time");
+                }
+            } catch (IOException | IllegalStateException e) {
+                // sending stays set: nothing is sent to a dropped subscriber
+                drop(this, e);
+                return;
+            }
+            sending.set(false);
+            // an event queued after the last poll but before the reset
+            if (!pending.isEmpty()) schedule();
+        }
+
+        private synchronized void started() {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+
+        private synchronized void finished() {
+            sendingThread = null;
+            // an eviction interrupt is meant for this send only, the pool thread is reused
+            Thread.interrupted();
+        }
+
+        // the emitter is locked by the blocked send, so it is completed by the sender thread once the send returns
+        private synchronized void evictIfStalled(long now) {
+            if (sendingThread == null || now - sendStartedNanos < sendTimeoutNanos) return;
+            log.debug("Evict vote tally subscriber: send is not finished in {} ms", TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            evicted = true;
+            subscribers.remove(this);
+            sendingThread.interrupt();
+        }
+    }
+}
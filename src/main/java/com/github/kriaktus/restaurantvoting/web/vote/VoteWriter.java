@@ -0,0 +1,37 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.to.VoteTo;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Write path of users' voices, selected by {@code app.vote.writer} property.
+ * <p>
+ * Implementations enforce one voice per user per day and publish a {@link VoteEvent} for every accepted voice.
+ */
+public interface VoteWriter {
+
+    /**
+     * @return created voice, its id is {@code null} while the voice isn't written to VOTE yet
+     */
+    VoteTo create(int userId, LocalDate date, int restaurantId);
+
+    /**
+     * @return previous restaurant id of the voice
+     */
+    int update(int userId, LocalDate date, int restaurantId);
+
+    /**
+     * Voice accepted but possibly not written to VOTE yet
+     */
+    default Optional<VoteTo> findAccepted(int userId, LocalDate date) {
+        return Optional.empty();
+    }
+
+    /**
+     * Write all accepted voices to VOTE before return
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Users who voted on the current day, answers "already voted?" without a database hit.
+ * <p>
+ * Rebuilt from VOTE on startup, then updated by committed {@link VoteEvent}s.
+ * A rebuilt bitmap is installed before VOTE is read, so events committed during the read are not lost,
+ * and covers its day only after the read. A new day starts from an empty bitmap; other days are not {@link #covers covered}.
+ * <p>
+ * As {@link VoteTally}, it relies on voices being accepted by this instance: a voice written to VOTE by other means is not seen.
+ */
+@Component
+@Slf4j
+public class VotedUsers {
+    private final VoteRepository voteRepository;
+    private final Clock clock;
+    private volatile DayBitmap current;
+
+    public VotedUsers(VoteRepository voteRepository, Clock clock) {
+        this.voteRepository = voteRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        DayBitmap bitmap = new DayBitmap(LocalDate.now(clock), false);
+        current = bitmap;
+        voteRepository.getUserVotesByDate(bitmap.date).stream()
+                .mapToInt(UserVoteTo::getUserId)
+                .forEach(bitmap.users::set);
+        bitmap.loaded = true;
+        log.info("Voted users for {} rebuilt", bitmap.date);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVote(VoteEvent event) {
+        DayBitmap bitmap = forDate(event.getDate());
+        if (bitmap == null) return;
+        if (event.getRestaurantId() != null) {
+            bitmap.users.set(event.getUserId());
+        } else {
+            bitmap.users.clear(event.getUserId());
+        }
+    }
+
+    public boolean covers(LocalDate date) {
+        DayBitmap bitmap = forDate(date);
+        return bitmap != null && bitmap.loaded;
+    }
+
+    /**
+     * Must be called for {@link #covers covered} dates only
+     */
+    public boolean hasVoted(LocalDate date, int userId) {
+        DayBitmap bitmap = forDate(date);
+        return bitmap != null && bitmap.users.contains(userId);
+    }
+
+    // null for a date that has already rolled over or is not rebuilt yet
+    private DayBitmap forDate(LocalDate date) {
+        DayBitmap bitmap = current;
+        if (bitmap == null) return null;
+        if (bitmap.date.equals(date)) return bitmap;
+        if (!date.isAfter(bitmap.date) || !date.equals(LocalDate.now(clock))) return null;
+        synchronized (this) {
+            if (current.date.isBefore(date)) {
+                current = new DayBitmap(date, true);
+            }
+            return current.date.equals(date) ? current : null;
+        }
+    }
+
+    private static class DayBitmap {
+        private final LocalDate date;
+        private final PagedBitmap users = new PagedBitmap();
+        private volatile boolean loaded;
+
+        private DayBitmap(LocalDate date, boolean loaded) {
+            this.date = date;
+            this.loaded = loaded;
+        }
+    }
+}
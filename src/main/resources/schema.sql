@@ -2,6 +2,9 @@ drop table if exists USERS cascade;
 drop table if exists RESTAURANT cascade;
 drop table if exists USER_ROLES;
 drop table if exists VOTE;
+drop table if exists VOTE_ARCHIVE;
+drop table if exists DAILY_RESULT;
+drop table if exists RESTAURANT_CHANGE;
 drop table if exists MENU_MENU_ITEM;
 drop table if exists MENU_ITEM;
 drop table if exists MENU;
@@ -40,10 +43,43 @@ create table VOTE
     voting_date     date        not null        default current_date,
     restaurant_id   int         not null,
     foreign key (user_id) references USERS (id) on delete cascade,
-    foreign key (restaurant_id) references RESTAURANT (id) on delete cascade
+    foreign key (restaurant_id) references RESTAURANT (id) on delete cascade,
+    constraint VOTE_UNIQUE_USER_ID_VOTING_DATE_CONSTRAINT unique (user_id, voting_date)
 );
 create index VOTE_VOTING_DATE_IDX on VOTE (voting_date);
 
+-- past days moved from VOTE by VoteArchiver, ids are kept
+create table VOTE_ARCHIVE
+(
+    id              int         primary key,
+    user_id         int         not null,
+    voting_date     date        not null,
+    restaurant_id   int         not null,
+    foreign key (user_id) references USERS (id) on delete cascade,
+    foreign key (restaurant_id) references RESTAURANT (id) on delete cascade,
+    constraint VOTE_ARCHIVE_UNIQUE_USER_ID_VOTING_DATE_CONSTRAINT unique (user_id, voting_date)
+);
+create index VOTE_ARCHIVE_VOTING_DATE_IDX on VOTE_ARCHIVE (voting_date);
+
+create table DAILY_RESULT
+(
+    voting_date     date        not null,
+    restaurant_id   int         not null,
+    votes           bigint      not null,
+    primary key (voting_date, restaurant_id),
+    foreign key (restaurant_id) references RESTAURANT (id) on delete cascade
+);
+
+-- changes of restaurants, menus and menu items, polled by other instances to evict their caches
+create table RESTAURANT_CHANGE
+(
+    id              bigint      primary key     auto_increment,
+    node_id         varchar     not null,
+    restaurant_id   int         not null,
+    changed_at      timestamp   not null        default now()
+);
+create index RESTAURANT_CHANGE_CHANGED_AT_IDX on RESTAURANT_CHANGE (changed_at);
+
 create table MENU_ITEM
 (
     id              int         primary key     auto_increment,
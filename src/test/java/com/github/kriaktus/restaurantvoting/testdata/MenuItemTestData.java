@@ -11,6 +11,7 @@ public class MenuItemTestData {
     public static final int MENU_ITEM_TO_1_3_ID = 3;
     public static final int MENU_ITEM_TO_1_4_ID = 4;
     public static final int MENU_ITEM_TO_2_1_ID = 5;
+    public static final int MENU_ITEM_TO_2_2_ID = 6;
 
     public static final String MENU_ITEM_TO_1_3_TITLE = "Говядина Топ-блейд с трюфельным пюре";
 
@@ -19,6 +20,7 @@ public class MenuItemTestData {
     public static final MenuItemTo menuItemTo1_3 = new MenuItemTo(MENU_ITEM_TO_1_3_ID, MENU_ITEM_TO_1_3_TITLE, 590);
     public static final MenuItemTo menuItemTo1_4 = new MenuItemTo(MENU_ITEM_TO_1_4_ID, "Чернослив с соленой карамелью и орехом пекан", 390);
     public static final MenuItemTo menuItemTo2_1 = new MenuItemTo(MENU_ITEM_TO_2_1_ID, "Тартар из говядины со шпинатом и трюфельным понзу", 490);
+    public static final MenuItemTo menuItemTo2_2 = new MenuItemTo(MENU_ITEM_TO_2_2_ID, "Тартар из говядины с пармезаном", 550);
 
     public static MenuItemTo getNewMenuItemTo() {
         return new MenuItemTo(null, "Дим самы с телячими хвостами", 550);
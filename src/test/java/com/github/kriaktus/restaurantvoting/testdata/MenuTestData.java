@@ -1,7 +1,9 @@
 package com.github.kriaktus.restaurantvoting.testdata;
 
+import com.github.kriaktus.restaurantvoting.to.DayMenuTo;
 import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
 import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantMenuTo;
 import com.github.kriaktus.restaurantvoting.web.MatcherFactory;
 
 import java.time.LocalDate;
@@ -14,6 +16,9 @@ public class MenuTestData {
     public static final MatcherFactory.Matcher<MenuTo> MENU_TO_MATCHER = MatcherFactory.usingIgnoringFieldsComparator(MenuTo.class);
     public static final int MENU_TO_1_ID = 4;
     public static final MenuTo menuTo1 = new MenuTo(MENU_TO_1_ID, LocalDate.now(), new ArrayList<>(List.of(menuItemTo1_1, menuItemTo1_2, menuItemTo1_3, menuItemTo1_4)));
+    public static final int MENU_TO_2_ID = 5;
+    public static final int PREVIOUS_MENU_TO_1_ID = 1;
+    public static final MenuTo previousMenuTo1 = new MenuTo(PREVIOUS_MENU_TO_1_ID, LocalDate.now().minusDays(1), List.of(menuItemTo1_2, menuItemTo1_3));
 
     public static MenuTo getNewMenuTo() {
         MenuTo newMenuTo = new MenuTo(null, LocalDate.now(), new ArrayList<>());
@@ -33,4 +38,24 @@ public class MenuTestData {
         items.add(new MenuItemTo(MENU_ITEM_TO_1_4_ID, "Тартар из говядины со шпинатом и трюфельным понзу", 590));
         return updatedMenuTo;
     }
+
+    public static DayMenuTo getNewDayMenuTo(int... restaurantIds) {
+        List<RestaurantMenuTo> menus = new ArrayList<>();
+        for (int restaurantId : restaurantIds) {
+            menus.add(new RestaurantMenuTo(null, restaurantId, getNewMenuTo().getItems()));
+        }
+        return new DayMenuTo(LocalDate.now(), menus);
+    }
+
+    public static DayMenuTo getNewDayMenuToWithItems(int itemsPerMenu, int... restaurantIds) {
+        List<RestaurantMenuTo> menus = new ArrayList<>();
+        for (int restaurantId : restaurantIds) {
+            List<MenuItemTo> items = new ArrayList<>();
+            for (int i = 1; i <= itemsPerMenu; i++) {
+                items.add(new MenuItemTo(null, "Блюдо" + i, 100 + i));
+            }
+            menus.add(new RestaurantMenuTo(null, restaurantId, items));
+        }
+        return new DayMenuTo(LocalDate.now(), menus);
+    }
 }
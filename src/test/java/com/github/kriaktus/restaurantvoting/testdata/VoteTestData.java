@@ -1,20 +1,28 @@
 package com.github.kriaktus.restaurantvoting.testdata;
 
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
 import com.github.kriaktus.restaurantvoting.to.VoteTo;
 import com.github.kriaktus.restaurantvoting.web.MatcherFactory;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.*;
 
 public class VoteTestData {
     public static final MatcherFactory.Matcher<VoteTo> VOTE_TO_MATCHER = MatcherFactory.usingIgnoringFieldsComparator(VoteTo.class);
+    public static final MatcherFactory.Matcher<RestaurantVotesTo> RESTAURANT_VOTES_TO_MATCHER = MatcherFactory.usingEqualsComparator(RestaurantVotesTo.class);
 
     public static final int YESTERDAY_USER_VOTE_TO_ID = 5;
     public static final int TODAY_USER_VOTE_TO_ID = 7;
 
     public static final VoteTo userYesterdayVoteTo = new VoteTo(YESTERDAY_USER_VOTE_TO_ID, LocalDate.now().minusDays(1), RESTAURANT4_ID);
     public static final VoteTo userTodayVoteTo = new VoteTo(TODAY_USER_VOTE_TO_ID, LocalDate.now(), RESTAURANT2_ID);
+    public static final List<VoteTo> userHistory = List.of(userTodayVoteTo, userYesterdayVoteTo,
+            new VoteTo(3, LocalDate.now().minusDays(2), RESTAURANT3_ID), new VoteTo(1, LocalDate.now().minusDays(3), RESTAURANT1_ID));
+
+    public static final List<RestaurantVotesTo> todayTally = List.of(new RestaurantVotesTo(RESTAURANT2_ID, 2), new RestaurantVotesTo(RESTAURANT3_ID, 1));
+    public static final List<RestaurantVotesTo> yesterdayResults = List.of(new RestaurantVotesTo(RESTAURANT1_ID, 1), new RestaurantVotesTo(RESTAURANT4_ID, 1));
 
     public static VoteTo getNewVoteTo() {
         return new VoteTo(null, LocalDate.now(), RESTAURANT2_ID);
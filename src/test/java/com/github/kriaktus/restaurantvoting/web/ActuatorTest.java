@@ -0,0 +1,36 @@
+package com.github.kriaktus.restaurantvoting.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.ADMIN_MAIL;
+
+public class ActuatorTest extends AbstractControllerTest {
+
+    @Test
+    void healthUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("UP"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components").doesNotExist());
+    }
+
+    @Test
+    void metricsUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.get("/actuator/metrics"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void metrics() throws Exception {
+        perform(MockMvcRequestBuilders.get("/actuator/metrics"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.kriaktus.restaurantvoting.web.admission;
+
+import com.github.kriaktus.restaurantvoting.web.AbstractControllerTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.*;
+import static com.github.kriaktus.restaurantvoting.web.admission.AdmissionFilter.EXCEPTION_OVERLOADED;
+import static com.github.kriaktus.restaurantvoting.web.admission.AdmissionInterceptor.EXCEPTION_USER_RATE;
+import static com.github.kriaktus.restaurantvoting.web.admission.AdmissionInterceptor.VOTES_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = {
+        "app.admission.user.capacity=2",
+        "app.admission.user.refill-per-second=0.01",
+        "app.admission.limit.initial=4",
+        "app.admission.limit.min=4",
+        "app.admission.limit.max=4",
+        "app.admission.non-vote-share=0.5"})
+class AdmissionTest extends AbstractControllerTest {
+    private static final String PROFILE_URL = "/api/profile";
+
+    @Autowired
+    private AdmissionFilter admissionFilter;
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void userRateLimited() throws Exception {
+        perform(MockMvcRequestBuilders.post(VOTES_URL).queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                .andExpect(admitted());
+        perform(MockMvcRequestBuilders.put(VOTES_URL + "/today").queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                .andExpect(admitted());
+        perform(MockMvcRequestBuilders.post(VOTES_URL).queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(content().string(containsString(EXCEPTION_USER_RATE)));
+    }
+
+    @Test
+    @WithUserDetails(value = USER2_MAIL)
+    void readsNotRateLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            perform(MockMvcRequestBuilders.get(PROFILE_URL))
+                    .andExpect(status().isOk());
+            perform(MockMvcRequestBuilders.get(VOTES_URL + "/today/tally"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void overloadedShedsNonVoteFirst() throws Exception {
+        AdaptiveConcurrencyLimit concurrencyLimit = (AdaptiveConcurrencyLimit) ReflectionTestUtils.getField(admissionFilter, "concurrencyLimit");
+        assertThat(concurrencyLimit.tryAcquire(1)).isTrue();
+        assertThat(concurrencyLimit.tryAcquire(1)).isTrue();
+        try {
+            perform(MockMvcRequestBuilders.get(PROFILE_URL))
+                    .andDo(print())
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(status().reason(EXCEPTION_OVERLOADED));
+            perform(MockMvcRequestBuilders.get(VOTES_URL + "/today/tally"))
+                    .andExpect(status().isTooManyRequests());
+            perform(MockMvcRequestBuilders.put(VOTES_URL + "/today").queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                    .andExpect(admitted());
+        } finally {
+            concurrencyLimit.release(0);
+            concurrencyLimit.release(0);
+        }
+    }
+
+    //  shed before authentication
+    @Test
+    void overloadedBeforeAuthentication() throws Exception {
+        AdaptiveConcurrencyLimit concurrencyLimit = (AdaptiveConcurrencyLimit) ReflectionTestUtils.getField(admissionFilter, "concurrencyLimit");
+        for (int i = 0; i < 4; i++) {
+            assertThat(concurrencyLimit.tryAcquire(1)).isTrue();
+        }
+        try {
+            perform(MockMvcRequestBuilders.put(VOTES_URL + "/today").queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                    .andExpect(status().isTooManyRequests());
+        } finally {
+            for (int i = 0; i < 4; i++) {
+                concurrencyLimit.release(0);
+            }
+        }
+        perform(MockMvcRequestBuilders.put(VOTES_URL + "/today").queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void metrics() throws Exception {
+        perform(MockMvcRequestBuilders.get("/actuator/metrics/admission.limit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(4.0));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void metricsForbidden() throws Exception {
+        perform(MockMvcRequestBuilders.get("/actuator/metrics/admission.limit"))
+                .andExpect(status().isForbidden());
+    }
+
+    //  a voice is refused (422 or 423 after the deadline), but not shed
+    private static ResultMatcher admitted() {
+        return result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.kriaktus.restaurantvoting.web.cache;
+
+import com.github.kriaktus.restaurantvoting.testdata.UserTestData;
+import com.github.kriaktus.restaurantvoting.web.AbstractControllerTest;
+import com.github.kriaktus.restaurantvoting.web.restaurant.ActualRestaurants;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantDayKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static com.github.kriaktus.restaurantvoting.web.cache.AdminCacheController.REST_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+@TestPropertySource(properties = "spring.cache.type=caffeine")
+public class AdminCacheControllerTest extends AbstractControllerTest {
+    private static final String RESTAURANT1_KEY = new RestaurantDayKey(LocalDate.now(), RESTAURANT1_ID).toString();
+
+    @Autowired
+    private ActualRestaurants actualRestaurants;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void getAll() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].name").value(hasItem(ActualRestaurants.RESTAURANT_TO_CACHE)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].name").value(hasItem("user")));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void getKeysAndEvict() throws Exception {
+        actualRestaurants.getActive(new RestaurantDayKey(LocalDate.now(), RESTAURANT1_ID));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{name}/keys", ActualRestaurants.RESTAURANT_TO_CACHE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(hasItem(RESTAURANT1_KEY)));
+        assertThat(meterRegistry.get("cache.load.latency").tag("cache", ActualRestaurants.RESTAURANT_TO_CACHE).timer().count())
+                .isPositive();
+
+        perform(MockMvcRequestBuilders.delete(REST_URL + "/{name}/keys", ActualRestaurants.RESTAURANT_TO_CACHE)
+                .param("key", RESTAURANT1_KEY))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{name}/keys", ActualRestaurants.RESTAURANT_TO_CACHE))
+                .andExpect(MockMvcResultMatchers.jsonPath("$").value(not(hasItem(RESTAURANT1_KEY))));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{name}", ActualRestaurants.RESTAURANT_TO_CACHE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.loadCount").isNumber())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hitRate").isNumber());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void evictNotFound() throws Exception {
+        perform(MockMvcRequestBuilders.delete(REST_URL + "/{name}/keys", ActualRestaurants.RESTAURANT_TO_CACHE)
+                .param("key", "unknown"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void getNotFound() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{name}", "unknown"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void clear() throws Exception {
+        perform(MockMvcRequestBuilders.delete(REST_URL + "/{name}", ActualRestaurants.RESTAURANT_WITH_MENU_TO_CACHE))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{name}", ActualRestaurants.RESTAURANT_WITH_MENU_TO_CACHE))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.estimatedSize").value(0));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllForbidden() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.kriaktus.restaurantvoting.web.menu;
+
+import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
+import com.github.kriaktus.restaurantvoting.testdata.UserTestData;
+import com.github.kriaktus.restaurantvoting.to.DayMenuTo;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantMenuTo;
+import com.github.kriaktus.restaurantvoting.util.JsonUtil;
+import com.github.kriaktus.restaurantvoting.web.AbstractControllerTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.kriaktus.restaurantvoting.testdata.MenuTestData.getNewDayMenuTo;
+import static com.github.kriaktus.restaurantvoting.testdata.MenuTestData.getNewDayMenuToWithItems;
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.*;
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.NOT_FOUND;
+import static com.github.kriaktus.restaurantvoting.util.MenuUtil.toMenuTo;
+import static com.github.kriaktus.restaurantvoting.web.menu.AdminDayMenuController.REST_URL;
+
+public class AdminDayMenuControllerTest extends AbstractControllerTest {
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publish() throws Exception {
+        menuRepository.deleteByDateAndRestaurantId(LocalDate.now(), RESTAURANT3_ID);
+        assertPublished(getNewDayMenuTo(RESTAURANT3_ID, RESTAURANT4_ID));
+    }
+
+    //  more items than the JDBC batch size: ids are read back batch by batch
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishManyItems() throws Exception {
+        menuRepository.deleteByDateAndRestaurantId(LocalDate.now(), RESTAURANT3_ID);
+        assertPublished(getNewDayMenuToWithItems(15, RESTAURANT3_ID, RESTAURANT4_ID));
+    }
+
+    private void assertPublished(DayMenuTo expected) throws Exception {
+        ResultActions resultActions = perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(expected)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        DayMenuTo actual = JsonUtil.readValue(resultActions.andReturn().getResponse().getContentAsString(), DayMenuTo.class);
+        Assertions.assertEquals(expected.getMenuDate(), actual.getMenuDate());
+        Assertions.assertEquals(expected.getMenus().size(), actual.getMenus().size());
+        for (int i = 0; i < expected.getMenus().size(); i++) {
+            RestaurantMenuTo expectedMenu = expected.getMenus().get(i);
+            RestaurantMenuTo actualMenu = actual.getMenus().get(i);
+            Assertions.assertEquals(expectedMenu.getRestaurantId(), actualMenu.getRestaurantId());
+            List<MenuItemTo> actualItems = actualMenu.getItems();
+            Assertions.assertEquals(expectedMenu.getItems().size(), actualItems.size());
+            for (int j = 0; j < actualItems.size(); j++) {
+                Assertions.assertNotNull(actualItems.get(j).getId());
+                Assertions.assertEquals(expectedMenu.getItems().get(j).getName(), actualItems.get(j).getName());
+            }
+            MenuTo stored = toMenuTo(menuRepository.findByDateAndRestaurantId(LocalDate.now(), actualMenu.getRestaurantId()).get());
+            Assertions.assertEquals(actualMenu.getId(), stored.getId());
+            Assertions.assertEquals(Set.copyOf(actualItems), Set.copyOf(stored.getItems()));
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishAlreadyExist() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(getNewDayMenuTo(RESTAURANT4_ID, RESTAURANT1_ID))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+        Assertions.assertTrue(menuRepository.findByDateAndRestaurantId(LocalDate.now(), RESTAURANT4_ID).isEmpty());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishNotFound() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(getNewDayMenuTo(RESTAURANT4_ID, NOT_FOUND))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+        Assertions.assertTrue(menuRepository.findByDateAndRestaurantId(LocalDate.now(), RESTAURANT4_ID).isEmpty());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishSameRestaurant() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(getNewDayMenuTo(RESTAURANT4_ID, RESTAURANT4_ID))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishNotActualDate() throws Exception {
+        DayMenuTo dayMenuTo = getNewDayMenuTo(RESTAURANT4_ID);
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new DayMenuTo(LocalDate.now().plusDays(1), dayMenuTo.getMenus()))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void publishInvalid() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new DayMenuTo(LocalDate.now(), List.of()))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    void publishUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(getNewDayMenuTo(RESTAURANT4_ID))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void publishForbidden() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(getNewDayMenuTo(RESTAURANT4_ID))))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
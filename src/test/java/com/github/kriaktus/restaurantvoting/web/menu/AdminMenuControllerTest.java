@@ -11,11 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -31,6 +34,8 @@ import static com.github.kriaktus.restaurantvoting.web.menu.AdminMenuController.
 public class AdminMenuControllerTest extends AbstractControllerTest {
     @Autowired
     private MenuRepository menuRepository;
+    @Autowired
+    private MockMvc mockMvc;
 
     @Test
     @WithUserDetails(value = UserTestData.ADMIN_MAIL)
@@ -85,6 +90,33 @@ public class AdminMenuControllerTest extends AbstractControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
     }
 
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void getHistory() throws Exception {
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.get(REST_URL + "/history", RESTAURANT1_ID)
+                .queryParam("from", LocalDate.now().minusDays(7).toString())
+                .queryParam("to", LocalDate.now().toString()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        String content = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<MenuTo> menus = content.lines().map(line -> JsonUtil.readValue(line, MenuTo.class)).toList();
+        MENU_TO_MATCHER.assertMatch(menus, previousMenuTo1, menuTo1);
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void getHistoryInvalidRange() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/history", RESTAURANT1_ID)
+                .queryParam("from", LocalDate.now().toString())
+                .queryParam("to", LocalDate.now().minusDays(1).toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
     @Test
     @WithUserDetails(value = UserTestData.ADMIN_MAIL)
     void createActualWithLocation() throws Exception {
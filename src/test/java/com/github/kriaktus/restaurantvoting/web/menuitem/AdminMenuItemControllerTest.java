@@ -6,6 +6,7 @@ import com.github.kriaktus.restaurantvoting.testdata.UserTestData;
 import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
 import com.github.kriaktus.restaurantvoting.util.JsonUtil;
 import com.github.kriaktus.restaurantvoting.web.AbstractControllerTest;
+import com.github.kriaktus.restaurantvoting.web.StatementCounter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -14,6 +15,8 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 
@@ -24,8 +27,16 @@ import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.NOT_FOU
 import static com.github.kriaktus.restaurantvoting.util.MenuItemUtil.toMenuItemTo;
 import static com.github.kriaktus.restaurantvoting.util.MenuUtil.toMenuTo;
 import static com.github.kriaktus.restaurantvoting.web.menuitem.AdminMenuItemController.REST_URL;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_MENU_ITEM_FROM_ANOTHER_RESTAURANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 
 public class AdminMenuItemControllerTest extends AbstractControllerTest {
+    private static final String RESTAURANTS_WITH_MENU_URL = "/api/restaurants/with-actual-menu";
+    private static final String RESTAURANTS_SEARCH_URL = "/api/restaurants/search";
+
+    @Autowired
+    private StatementCounter statementCounter;
     @Autowired
     private MenuRepository menuRepository;
     @Autowired
@@ -77,7 +88,7 @@ public class AdminMenuItemControllerTest extends AbstractControllerTest {
         Integer id = actual.getId();
         expected.setId(id);
         MENU_ITEM_TO_MATCHER.assertMatch(actual, expected);
-        MENU_ITEM_TO_MATCHER.assertMatch(toMenuItemTo(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, RESTAURANT1_ID).get()), expected);
+        MENU_ITEM_TO_MATCHER.assertMatch(toMenuItemTo(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, RESTAURANT1_ID, LocalDate.now()).get()), expected);
     }
 
     @Test
@@ -120,7 +131,69 @@ public class AdminMenuItemControllerTest extends AbstractControllerTest {
                 .content(JsonUtil.writeValue(getUpdatedMenuItemTo())))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isNoContent());
-        MENU_ITEM_TO_MATCHER.assertMatch(toMenuItemTo(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, RESTAURANT1_ID).get()), expected);
+        MENU_ITEM_TO_MATCHER.assertMatch(toMenuItemTo(menuItemRepository.findFromActiveMenuByIdAndRestaurantId(id, RESTAURANT1_ID, LocalDate.now()).get()), expected);
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void updateBelongAnotherRestaurant() throws Exception {
+        perform(MockMvcRequestBuilders.put(REST_URL + "/{id}", RESTAURANT1_ID, MENU_ITEM_TO_2_1_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(menuItemTo2_1)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.content().string(containsString(EXCEPTION_MENU_ITEM_FROM_ANOTHER_RESTAURANT)));
+    }
+
+    //  committed edit reloads only the edited restaurant into the restaurants snapshot: restaurants, then their items
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void updateInActualMenuQueries() throws Exception {
+        perform(MockMvcRequestBuilders.get(RESTAURANTS_WITH_MENU_URL))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        try {
+            putMenuItem(getUpdatedMenuItemTo());
+            statementCounter.reset();
+            perform(MockMvcRequestBuilders.get(RESTAURANTS_WITH_MENU_URL))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].menuTo.items[?(@.id == %d)].name", MENU_ITEM_TO_1_1_ID)
+                            .value(getUpdatedMenuItemTo().getName()));
+            assertThat(statementCounter.get()).isEqualTo(2);
+
+            statementCounter.reset();
+            perform(MockMvcRequestBuilders.get(RESTAURANTS_WITH_MENU_URL))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+            assertThat(statementCounter.get()).isZero();
+        } finally {
+            putMenuItem(menuItemTo1_1);
+        }
+    }
+
+    //  committed edit is found by the menu item search, the replaced name is not
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = UserTestData.ADMIN_MAIL)
+    void updateInActualMenuSearch() throws Exception {
+        perform(MockMvcRequestBuilders.get(RESTAURANTS_SEARCH_URL).queryParam("query", "хумус"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].menuTo.items[0].id").value(MENU_ITEM_TO_1_1_ID));
+        try {
+            putMenuItem(getUpdatedMenuItemTo());
+            perform(MockMvcRequestBuilders.get(RESTAURANTS_SEARCH_URL).queryParam("query", "КРЕВЕТ лйм"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].menuTo.items[0].id").value(MENU_ITEM_TO_1_1_ID));
+            perform(MockMvcRequestBuilders.get(RESTAURANTS_SEARCH_URL).queryParam("query", "хумус"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+        } finally {
+            putMenuItem(menuItemTo1_1);
+        }
+    }
+
+    private void putMenuItem(MenuItemTo menuItemTo) throws Exception {
+        perform(MockMvcRequestBuilders.put(REST_URL + "/{id}", RESTAURANT1_ID, menuItemTo.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(menuItemTo)))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
     }
 
     @Test
@@ -0,0 +1,129 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.cache.type=caffeine",
+        "app.restaurant.cache.refresh-seconds=30", "app.restaurant.cache.expire-seconds=120"})
+class ActualRestaurantsConcurrencyTest {
+    private static final int CALLERS = 500;
+    private static final long REFRESH_SECONDS = 30;
+    private static final long EXPIRE_SECONDS = 120;
+
+    @Autowired
+    private ActualRestaurants actualRestaurants;
+    @Autowired
+    private RestaurantSnapshot restaurantSnapshot;
+    @SpyBean
+    private RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    @MockBean
+    private Ticker ticker;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void stubTicker() {
+        when(ticker.read()).thenAnswer(invocation -> nanos.get());
+    }
+
+    @Test
+    void getWithMenuAfterEviction() throws Exception {
+        RestaurantDayKey key = new RestaurantDayKey(LocalDate.now(), RESTAURANT1_ID);
+        actualRestaurants.getWithMenu(key);
+        actualRestaurants.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        assertThat(countReads(() -> actualRestaurants.getWithMenu(key))).isEqualTo(1);
+    }
+
+    @Test
+    void getAllWithActualMenuAfterChange() throws Exception {
+        restaurantSnapshot.getAllWithActualMenu();
+        restaurantSnapshot.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        assertThat(countReads(() -> restaurantSnapshot.getAllWithActualMenu())).isEqualTo(1);
+    }
+
+    @Test
+    void getWithMenuStaleReloadedInBackground() throws Exception {
+        RestaurantDayKey key = new RestaurantDayKey(LocalDate.now(), RESTAURANT1_ID);
+        actualRestaurants.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        RestaurantWithMenuTo loaded = actualRestaurants.getWithMenu(key);
+
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reloading.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).when(restaurantWithMenuRepository).find(RESTAURANT1_ID, key.getDate());
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(REFRESH_SECONDS + 1));
+        try {
+            //  a stale read starts the reload and doesn't wait for it
+            assertThat(actualRestaurants.getWithMenu(key)).isSameAs(loaded);
+            assertThat(reloading.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(actualRestaurants.getWithMenu(key)).isSameAs(loaded);
+        } finally {
+            release.countDown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (actualRestaurants.getWithMenu(key) == loaded) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        verify(restaurantWithMenuRepository, times(2)).find(RESTAURANT1_ID, key.getDate());
+    }
+
+    @Test
+    void getWithMenuExpiredLoadedByCaller() {
+        RestaurantDayKey key = new RestaurantDayKey(LocalDate.now(), RESTAURANT1_ID);
+        actualRestaurants.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        RestaurantWithMenuTo loaded = actualRestaurants.getWithMenu(key);
+        clearInvocations(restaurantWithMenuRepository);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(EXPIRE_SECONDS + 1));
+        assertThat(actualRestaurants.getWithMenu(key)).isNotSameAs(loaded);
+        verify(restaurantWithMenuRepository).find(RESTAURANT1_ID, key.getDate());
+    }
+
+    // database reads issued by parallel callers released at once
+    private long countReads(Callable<?> call) throws Exception {
+        clearInvocations(restaurantWithMenuRepository);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return mockingDetails(restaurantWithMenuRepository).getInvocations().size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcInvalidationBroadcasterTest {
+    private static final String PEER_CHANGE_SQL = "INSERT INTO restaurant_change (node_id, restaurant_id, changed_at) VALUES ('peer', ?, ?)";
+    private static final String PEER_CHANGE_WITH_ID_SQL = "INSERT INTO restaurant_change (id, node_id, restaurant_id, changed_at) VALUES (?, 'peer', ?, ?)";
+
+    @Autowired
+    private JdbcInvalidationBroadcaster broadcaster;
+    @Autowired
+    private RestaurantSnapshot restaurantSnapshot;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteChanges() {
+        jdbcTemplate.update("DELETE FROM restaurant_change");
+    }
+
+    @Test
+    void peerChange() {
+        long changes = changes();
+        jdbcTemplate.update(PEER_CHANGE_SQL, RESTAURANT1_ID, LocalDateTime.now());
+        broadcaster.poll();
+        assertThat(changes()).isGreaterThan(changes);
+
+        changes = changes();
+        broadcaster.poll();
+        assertThat(changes()).isEqualTo(changes);
+    }
+
+    //  ids are taken on insert: a row with a lower id may commit after the polled greater one
+    @Test
+    void peerChangeCommittedOutOfIdOrder() {
+        jdbcTemplate.update(PEER_CHANGE_WITH_ID_SQL, 1000, RESTAURANT1_ID, LocalDateTime.now());
+        broadcaster.poll();
+
+        long changes = changes();
+        jdbcTemplate.update(PEER_CHANGE_WITH_ID_SQL, 999, RESTAURANT1_ID, LocalDateTime.now().minusSeconds(1));
+        broadcaster.poll();
+        assertThat(changes()).isGreaterThan(changes);
+
+        changes = changes();
+        broadcaster.poll();
+        assertThat(changes()).isEqualTo(changes);
+    }
+
+    @Test
+    void localChange() {
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RESTAURANT1_ID));
+        assertThat(countChanges()).isEqualTo(1);
+
+        long changes = changes();
+        broadcaster.poll();
+        assertThat(changes()).isEqualTo(changes);
+    }
+
+    @Test
+    void remoteChangeNotForwarded() {
+        eventPublisher.publishEvent(new RestaurantChangedEvent(Set.of(RESTAURANT1_ID), true));
+        assertThat(countChanges()).isZero();
+    }
+
+    @Test
+    void earlierChangesSkipped() {
+        jdbcTemplate.update(PEER_CHANGE_SQL, RESTAURANT1_ID, LocalDateTime.now());
+        broadcaster.skipEarlierChanges();
+
+        long changes = changes();
+        broadcaster.poll();
+        assertThat(changes()).isEqualTo(changes);
+    }
+
+    @Test
+    void purge() {
+        jdbcTemplate.update(PEER_CHANGE_SQL, RESTAURANT1_ID, LocalDateTime.now().minusDays(1));
+        jdbcTemplate.update(PEER_CHANGE_SQL, RESTAURANT1_ID, LocalDateTime.now());
+        broadcaster.purge();
+        assertThat(countChanges()).isEqualTo(1);
+    }
+
+    //  changes applied to the snapshot, remote ones included
+    private long changes() {
+        return ((AtomicLong) ReflectionTestUtils.getField(restaurantSnapshot, "version")).get();
+    }
+
+    private Integer countChanges() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM restaurant_change", Integer.class);
+    }
+}
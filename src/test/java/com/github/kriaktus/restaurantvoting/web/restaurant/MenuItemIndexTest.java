@@ -0,0 +1,18 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuItemIndexTest {
+
+    @Test
+    void tokenize() {
+        assertThat(MenuItemIndex.tokenize("Зелёный  ЧАЙ, 0.5л (Sencha)")).containsExactly("зеленый", "чай", "0", "5л", "sencha");
+    }
+
+    @Test
+    void tokenizeWithoutWords() {
+        assertThat(MenuItemIndex.tokenize(" - , ")).isEmpty();
+    }
+}
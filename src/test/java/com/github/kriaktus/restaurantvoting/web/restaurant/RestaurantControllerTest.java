@@ -1,22 +1,69 @@
 package com.github.kriaktus.restaurantvoting.web.restaurant;
 
+import com.github.kriaktus.restaurantvoting.repository.MenuItemRepository;
+import com.github.kriaktus.restaurantvoting.repository.MenuRepository;
 import com.github.kriaktus.restaurantvoting.testdata.UserTestData;
+import com.github.kriaktus.restaurantvoting.to.MenuItemTo;
+import com.github.kriaktus.restaurantvoting.to.MenuTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import com.github.kriaktus.restaurantvoting.util.JsonUtil;
 import com.github.kriaktus.restaurantvoting.web.AbstractControllerTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static com.github.kriaktus.restaurantvoting.testdata.MenuItemTestData.*;
+import static com.github.kriaktus.restaurantvoting.testdata.MenuTestData.*;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.*;
 import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.NOT_FOUND;
+import static com.github.kriaktus.restaurantvoting.util.MenuUtil.fromMenuToAndRestaurant;
 import static com.github.kriaktus.restaurantvoting.util.RestaurantUtil.toRestaurantWithMenuTo;
 import static com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantController.REST_URL;
 
 public class RestaurantControllerTest extends AbstractControllerTest {
+    @Autowired
+    private MenuRepository menuRepository;
+    @Autowired
+    private RestaurantSnapshot restaurantSnapshot;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ActualRestaurants actualRestaurants;
+    @Autowired
+    private MenuItemPriceIndex menuItemPriceIndex;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private Clock clock;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     @WithUserDetails(value = UserTestData.USER_MAIL)
@@ -61,6 +108,157 @@ public class RestaurantControllerTest extends AbstractControllerTest {
                 .andExpect(RESTAURANT_TO_MATCHER.contentJson(List.of(restaurantTo1, restaurantTo2, restaurantTo3)));
     }
 
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllActiveGzip() throws Exception {
+        byte[] gzip = perform(MockMvcRequestBuilders.get(REST_URL)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            RESTAURANT_TO_MATCHER.assertMatch(JsonUtil.readValues(new String(in.readAllBytes(), StandardCharsets.UTF_8), RestaurantTo.class),
+                    restaurantTo1, restaurantTo2, restaurantTo3);
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllActiveGzipRefused() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(RESTAURANT_TO_MATCHER.contentJson(List.of(restaurantTo1, restaurantTo2, restaurantTo3)));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllActiveAfterChange() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL))
+                .andExpect(RESTAURANT_TO_MATCHER.contentJson(List.of(restaurantTo1, restaurantTo2, restaurantTo3)));
+        menuRepository.deleteByDateAndRestaurantId(LocalDate.now(), RESTAURANT1_ID);
+        perform(MockMvcRequestBuilders.get(REST_URL))
+                .andExpect(RESTAURANT_TO_MATCHER.contentJson(List.of(restaurantTo1, restaurantTo2, restaurantTo3)));
+
+        // deferred until rollback: drops the snapshot built from uncommitted data
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RESTAURANT1_ID));
+        restaurantSnapshot.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        perform(MockMvcRequestBuilders.get(REST_URL))
+                .andExpect(RESTAURANT_TO_MATCHER.contentJson(List.of(restaurantTo2, restaurantTo3)));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllActiveNotModified() throws Exception {
+        String eTag = perform(MockMvcRequestBuilders.get(REST_URL))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, containsString("must-revalidate")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        perform(MockMvcRequestBuilders.get(REST_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        perform(MockMvcRequestBuilders.get(REST_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void errorNotCacheable() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", NOT_FOUND))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search").param("query", "!"))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getActiveModified() throws Exception {
+        String eTag = perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT1_ID))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT1_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        //  the same content, as on another instance or after a restart
+        restaurantSnapshot.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT1_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        jdbcTemplate.update("UPDATE restaurant SET name='Renamed' WHERE id=?", RESTAURANT1_ID);
+        restaurantSnapshot.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        actualRestaurants.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT1_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(RESTAURANT_TO_MATCHER.contentJson(new RestaurantTo(RESTAURANT1_ID, "Renamed")));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void eTagScopedToPath() throws Exception {
+        String eTag1 = perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT1_ID).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag1).doesNotContain("gzip");
+        perform(MockMvcRequestBuilders.get(REST_URL + "/{id}", RESTAURANT2_ID).header(HttpHeaders.IF_NONE_MATCH, eTag1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, not(eTag1)));
+        String eTag = perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items").queryParam("limit", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items").queryParam("limit", "2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void searchOtherDayNotCacheable() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search").param("query", "Блюдо").param("date", LocalDate.now().plusDays(1).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllWithActualMenuWarmedUp() throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        menuRepository.saveAndFlush(fromMenuToAndRestaurant(new MenuTo(null, tomorrow, List.of(new MenuItemTo(null, "Блюдо1", 400))), RESTAURANT1_ID));
+        actualRestaurants.warmUp(tomorrow);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            ReflectionTestUtils.setField(restaurantSnapshot, "clock",
+                    Clock.fixed(tomorrow.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+            statistics.clear();
+            perform(MockMvcRequestBuilders.get(REST_URL + "/with-actual-menu"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].menuTo.menuDate").value(tomorrow.toString()));
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            ReflectionTestUtils.setField(restaurantSnapshot, "clock", clock);
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getAllWithActualMenu() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-actual-menu"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == %d)].menuTo.id", RESTAURANT1_ID).value(menuTo1.getId()));
+    }
+
     @Test
     @WithUserDetails(value = UserTestData.USER_MAIL)
     void getWithActualMenu() throws Exception {
@@ -86,4 +284,100 @@ public class RestaurantControllerTest extends AbstractControllerTest {
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
     }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void search() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search")
+                .queryParam("query", "ТАРТ, пармезан"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(RESTAURANT_WITH_MENU_TO_MATCHER.contentJson(
+                        new RestaurantWithMenuTo(RESTAURANT1_ID, restaurantTo1.getName(), new MenuTo(MENU_TO_1_ID, LocalDate.now(), List.of(menuItemTo1_1))),
+                        new RestaurantWithMenuTo(RESTAURANT2_ID, restaurantTo2.getName(), new MenuTo(MENU_TO_2_ID, LocalDate.now(), List.of(menuItemTo2_2)))));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void searchByDate() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search")
+                .queryParam("query", "паста")
+                .queryParam("date", LocalDate.now().minusDays(1).toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(RESTAURANT_WITH_MENU_TO_MATCHER.contentJson(List.of(
+                        new RestaurantWithMenuTo(RESTAURANT1_ID, restaurantTo1.getName(), new MenuTo(PREVIOUS_MENU_TO_1_ID, LocalDate.now().minusDays(1), List.of(menuItemTo1_2))))));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void searchNotFound() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search")
+                .queryParam("query", "борщ"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void searchWithoutWords() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/search")
+                .queryParam("query", " ,- "))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getActualMenuItemsByPrice() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items")
+                .queryParam("maxPrice", "490"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].id").value(contains(MENU_ITEM_TO_1_4_ID, MENU_ITEM_TO_1_1_ID, MENU_ITEM_TO_1_2_ID, MENU_ITEM_TO_2_1_ID, 13)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].price").value(menuItemTo1_4.getPrice()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].restaurantTo.name").value(restaurantTo1.getName()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[4].restaurantTo.id").value(RESTAURANT3_ID));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getActualMenuItemsByPriceDescending() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items")
+                .queryParam("minPrice", "550")
+                .queryParam("maxPrice", "590")
+                .queryParam("direction", "DESC")
+                .queryParam("limit", "4"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].id").value(contains(10, 8, MENU_ITEM_TO_1_3_ID, 12)));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getActualMenuItemsByPriceAfterChange() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items")
+                .queryParam("maxPrice", "390"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].id").value(contains(MENU_ITEM_TO_1_4_ID)));
+
+        menuItemRepository.getById(MENU_ITEM_TO_1_3_ID).setPrice(100);
+        menuItemRepository.flush();
+        // deferred until rollback: drops the index built from uncommitted data
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RESTAURANT1_ID));
+        menuItemPriceIndex.onRestaurantChanged(new RestaurantChangedEvent(RESTAURANT1_ID));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items")
+                .queryParam("maxPrice", "390"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].id").value(contains(MENU_ITEM_TO_1_3_ID, MENU_ITEM_TO_1_4_ID)));
+    }
+
+    @Test
+    @WithUserDetails(value = UserTestData.USER_MAIL)
+    void getActualMenuItemsByPriceInvalidRange() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/menu-items")
+                .queryParam("minPrice", "500")
+                .queryParam("maxPrice", "400"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
 }
@@ -0,0 +1,113 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.model.Restaurant;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantTo;
+import com.github.kriaktus.restaurantvoting.util.RestaurantUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.IntFunction;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares cost of an active restaurant read: entity hydration + mapping vs constructor expression projection.
+ * <p>
+ * Run with {@code mvn test -P benchmark}
+ */
+@Tag("benchmark")
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RestaurantProjectionBenchmarkTest {
+    private static final int ITERATIONS = 50_000;
+    private static final int ACTIVE_RESTAURANTS = 3;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+
+    @BeforeAll
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void activeRestaurant() {
+        LocalDate today = LocalDate.now();
+        IntFunction<RestaurantTo> entity = id -> readOnly.execute(status -> RestaurantUtil.toRestaurantTo(findActiveEntity(id, today)));
+        IntFunction<RestaurantTo> projection = id -> readOnly.execute(status -> restaurantRepository.findActiveToById(id, today).orElseThrow());
+        assertThat(projection.apply(RESTAURANT1_ID)).isEqualTo(entity.apply(RESTAURANT1_ID));
+
+        run(entity);
+        run(projection);
+        Result entityResult = run(entity);
+        Result projectionResult = run(projection);
+
+        log.info(String.format("Active restaurant reads, %d iterations:%n" +
+                        "  entity     %6.2f us/op, %6d bytes/op, %d entities loaded%n" +
+                        "  projection %6.2f us/op, %6d bytes/op, %d entities loaded",
+                ITERATIONS, entityResult.micros(), entityResult.bytes(), entityResult.entities(),
+                projectionResult.micros(), projectionResult.bytes(), projectionResult.entities()));
+        assertThat(entityResult.entities()).isGreaterThanOrEqualTo(ITERATIONS);
+        assertThat(projectionResult.entities()).isZero();
+    }
+
+    private Restaurant findActiveEntity(int id, LocalDate date) {
+        EntityGraph<Restaurant> graph = entityManager.createEntityGraph(Restaurant.class);
+        graph.addAttributeNodes("menu");
+        return entityManager.createQuery("SELECT r FROM Restaurant r JOIN r.menu AS m WHERE r.id=:id AND m.menuDate = :date", Restaurant.class)
+                .setParameter("id", id)
+                .setParameter("date", date)
+                .setHint("javax.persistence.loadgraph", graph)
+                .getSingleResult();
+    }
+
+    private Result run(IntFunction<RestaurantTo> read) {
+        long thread = Thread.currentThread().getId();
+        statistics.clear();
+        long allocated = threadMXBean.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.apply(i % ACTIVE_RESTAURANTS + 1);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(elapsed / 1e3 / ITERATIONS,
+                (threadMXBean.getThreadAllocatedBytes(thread) - allocated) / ITERATIONS,
+                statistics.getEntityLoadCount());
+    }
+
+    private record Result(double micros, long bytes, long entities) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.kriaktus.restaurantvoting.web.restaurant;
+
+import com.github.kriaktus.restaurantvoting.model.Restaurant;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantWithMenuJdbcRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantWithMenuTo;
+import com.github.kriaktus.restaurantvoting.util.RestaurantUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares loading of restaurants with menu items: one joined entity graph query vs two flat queries.
+ * <p>
+ * Run with {@code mvn test -P benchmark}
+ */
+@Tag("benchmark")
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RestaurantWithMenuJdbcRepositoryBenchmarkTest {
+    private static final int RESTAURANTS = 5000;
+    private static final int ITEMS = 10;
+    private static final int ROUNDS = 10;
+    private static final String NAME_PREFIX = "Benchmark";
+    private static final LocalDate DATE = LocalDate.now().plusDays(200);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RestaurantWithMenuJdbcRepository restaurantWithMenuRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void createRestaurants() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        jdbcTemplate.batchUpdate("INSERT INTO restaurant (name) VALUES (?)",
+                IntStream.range(0, RESTAURANTS).mapToObj(i -> new Object[]{NAME_PREFIX + i}).toList());
+        jdbcTemplate.update("INSERT INTO menu (menu_date, restaurant_id) SELECT ?, id FROM restaurant WHERE name LIKE ?",
+                DATE, NAME_PREFIX + "%");
+        jdbcTemplate.update("INSERT INTO menu_item (restaurant_id, name, price) " +
+                "SELECT r.id, 'Item' || x, 100 + x FROM restaurant r CROSS JOIN SYSTEM_RANGE(1, ?) WHERE r.name LIKE ?",
+                ITEMS, NAME_PREFIX + "%");
+        jdbcTemplate.update("INSERT INTO menu_menu_item (menu_id, menu_item_id) " +
+                "SELECT m.id, mi.id FROM menu m JOIN menu_item mi ON mi.restaurant_id = m.restaurant_id WHERE m.menu_date = ?", DATE);
+    }
+
+    @AfterAll
+    void deleteRestaurants() {
+        jdbcTemplate.update("DELETE FROM restaurant WHERE name LIKE ?", NAME_PREFIX + "%");
+    }
+
+    @Test
+    void findAll() {
+        Supplier<List<RestaurantWithMenuTo>> joined = () -> readOnly.execute(status -> findAllJoined().stream()
+                .map(RestaurantUtil::toRestaurantWithMenuTo).toList());
+        Supplier<List<RestaurantWithMenuTo>> flat = () -> restaurantWithMenuRepository.findAll(DATE);
+        assertThat(countItems(flat.get())).isEqualTo(countItems(joined.get())).isEqualTo(RESTAURANTS * ITEMS);
+
+        run(joined);
+        run(flat);
+        Result joinedResult = run(joined);
+        Result flatResult = run(flat);
+
+        log.info(String.format("Restaurants with menu, %d restaurants x %d items, %d rounds:%n" +
+                        "  joined entity graph %7.1f ms/op, %6.1f MB/op%n" +
+                        "  two flat queries    %7.1f ms/op, %6.1f MB/op",
+                RESTAURANTS, ITEMS, ROUNDS, joinedResult.millis(), joinedResult.megabytes(),
+                flatResult.millis(), flatResult.megabytes()));
+        assertThat(flatResult.megabytes()).isLessThan(joinedResult.megabytes());
+    }
+
+    // the strategy replaced by RestaurantWithMenuJdbcRepository
+    private List<Restaurant> findAllJoined() {
+        EntityGraph<Restaurant> graph = entityManager.createEntityGraph(Restaurant.class);
+        graph.addSubgraph("menu").addAttributeNodes("items");
+        return entityManager.createQuery("SELECT DISTINCT r FROM Restaurant r JOIN r.menu AS m WHERE m.menuDate = :date", Restaurant.class)
+                .setParameter("date", DATE)
+                .setHint("javax.persistence.loadgraph", graph)
+                .getResultList();
+    }
+
+    private static int countItems(List<RestaurantWithMenuTo> restaurants) {
+        return restaurants.stream().mapToInt(restaurant -> restaurant.menuTo.getItems().size()).sum();
+    }
+
+    private Result run(Supplier<List<RestaurantWithMenuTo>> read) {
+        long thread = Thread.currentThread().getId();
+        long allocated = threadMXBean.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            read.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(elapsed / 1e6 / ROUNDS, (threadMXBean.getThreadAllocatedBytes(thread) - allocated) / 1e6 / ROUNDS);
+    }
+
+    private record Result(double millis, double megabytes) {
+    }
+}
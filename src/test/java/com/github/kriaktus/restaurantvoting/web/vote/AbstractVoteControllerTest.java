@@ -18,6 +18,6 @@ public abstract class AbstractVoteControllerTest extends AbstractControllerTest
                 e.printStackTrace();
             }
         }
-        return null;
+        return voteController;
     }
 }
@@ -0,0 +1,91 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.error.TooManyRequestsException;
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchedVoteWriterTest {
+    // future date: batched voices are written outside of a test transaction
+    private static final LocalDate DATE = LocalDate.now().plusDays(10);
+    private static final String DROPPED_RESTAURANT = "Dropped";
+
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<VoteEvent> events = new ArrayList<>();
+
+    @AfterEach
+    void deleteVotes() {
+        jdbcTemplate.update("DELETE FROM vote WHERE voting_date=?", DATE);
+        jdbcTemplate.update("DELETE FROM restaurant WHERE name=?", DROPPED_RESTAURANT);
+    }
+
+    @Test
+    void rejectWhenQueueFull() throws InterruptedException {
+        BatchedVoteWriter writer = newStoppedWriter(1);
+        writer.create(USER_ID, DATE, RESTAURANT1_ID);
+        assertThatThrownBy(() -> writer.create(USER2_ID, DATE, RESTAURANT1_ID)).isInstanceOf(TooManyRequestsException.class);
+        assertThat(writer.findAccepted(USER2_ID, DATE)).isEmpty();
+        assertThat(events).containsExactly(new VoteEvent(DATE, USER_ID, null, RESTAURANT1_ID));
+
+        writer.flush();
+        assertThat(voteRepository.getUserVotesByDate(DATE)).containsExactly(new UserVoteTo(USER_ID, RESTAURANT1_ID));
+        // rejected voice may be sent again
+        writer.create(USER2_ID, DATE, RESTAURANT1_ID);
+    }
+
+    @Test
+    void undoDroppedVoices() throws InterruptedException {
+        BatchedVoteWriter writer = newStoppedWriter(10);
+        writer.create(USER_ID, DATE, RESTAURANT1_ID);
+        writer.flush();
+        jdbcTemplate.update("INSERT INTO restaurant (name) VALUES (?)", DROPPED_RESTAURANT);
+        int droppedId = jdbcTemplate.queryForObject("SELECT id FROM restaurant WHERE name=?", Integer.class, DROPPED_RESTAURANT);
+        writer.update(USER_ID, DATE, droppedId);
+        writer.create(USER2_ID, DATE, droppedId);
+        jdbcTemplate.update("DELETE FROM restaurant WHERE id=?", droppedId);
+        events.clear();
+
+        writer.flush();
+        assertThat(voteRepository.getUserVotesByDate(DATE)).containsExactly(new UserVoteTo(USER_ID, RESTAURANT1_ID));
+        assertThat(writer.findAccepted(USER_ID, DATE)).contains(new VoteTo(null, DATE, RESTAURANT1_ID));
+        assertThat(writer.findAccepted(USER2_ID, DATE)).isEmpty();
+        assertThat(events).containsExactly(
+                new VoteEvent(DATE, USER_ID, droppedId, RESTAURANT1_ID),
+                new VoteEvent(DATE, USER2_ID, droppedId, null));
+    }
+
+    // voices are written by flush() only
+    private BatchedVoteWriter newStoppedWriter(int capacity) throws InterruptedException {
+        BatchedVoteWriter writer = new BatchedVoteWriter(voteRepository, restaurantRepository, jdbcTemplate, transactionTemplate,
+                event -> events.add((VoteEvent) event), 500, 50, capacity);
+        writer.shutdown();
+        return writer;
+    }
+}
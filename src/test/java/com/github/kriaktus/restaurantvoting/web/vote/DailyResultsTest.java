@@ -0,0 +1,52 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import com.github.kriaktus.restaurantvoting.web.restaurant.RestaurantChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.cache.type=caffeine")
+class DailyResultsTest {
+    // closed day without test data votes
+    private static final LocalDate DATE = LocalDate.now().minusDays(30);
+    private static final String DELETED_RESTAURANT = "Deleted";
+
+    @Autowired
+    private DailyResults dailyResults;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteResults() {
+        jdbcTemplate.update("DELETE FROM daily_result WHERE voting_date=?", DATE);
+        jdbcTemplate.update("DELETE FROM restaurant WHERE name=?", DELETED_RESTAURANT);
+    }
+
+    @Test
+    void evictedOnRestaurantDelete() {
+        jdbcTemplate.update("INSERT INTO restaurant (name) VALUES (?)", DELETED_RESTAURANT);
+        int deletedId = jdbcTemplate.queryForObject("SELECT id FROM restaurant WHERE name=?", Integer.class, DELETED_RESTAURANT);
+        jdbcTemplate.update("INSERT INTO daily_result (voting_date, restaurant_id, votes) VALUES (?, ?, 1)", DATE, deletedId);
+        assertThat(dailyResults.get(DATE)).containsExactly(new RestaurantVotesTo(deletedId, 1));
+
+        //  daily results are deleted by cascade
+        jdbcTemplate.update("DELETE FROM restaurant WHERE id=?", deletedId);
+        assertThat(dailyResults.get(DATE)).containsExactly(new RestaurantVotesTo(deletedId, 1));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(deletedId));
+        assertThat(dailyResults.get(DATE)).isEmpty();
+    }
+}
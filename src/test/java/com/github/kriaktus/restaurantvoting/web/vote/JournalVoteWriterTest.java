@@ -0,0 +1,80 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.*;
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JournalVoteWriterTest {
+    // future date: journaled voices are written outside of a test transaction
+    private static final LocalDate DATE = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void deleteVotes() {
+        jdbcTemplate.update("DELETE FROM vote WHERE voting_date=?", DATE);
+    }
+
+    @Test
+    void recoverAfterCrash() {
+        JournalVoteWriter crashed = newWriter(10);
+        crashed.create(USER_ID, DATE, RESTAURANT1_ID);
+        crashed.create(USER2_ID, DATE, RESTAURANT2_ID);
+        crashed.update(USER_ID, DATE, RESTAURANT3_ID);
+        assertThat(voteRepository.getUserVotesByDate(DATE)).isEmpty();
+
+        newWriter(10);
+        assertThat(voteRepository.getUserVotesByDate(DATE)).containsExactlyInAnyOrder(
+                new UserVoteTo(USER_ID, RESTAURANT3_ID), new UserVoteTo(USER2_ID, RESTAURANT2_ID));
+    }
+
+    @Test
+    void checkpointWhenFull() {
+        JournalVoteWriter writer = newWriter(2);
+        writer.create(USER_ID, DATE, RESTAURANT1_ID);
+        writer.create(ADMIN_ID, DATE, RESTAURANT1_ID);
+        writer.create(USER2_ID, DATE, RESTAURANT2_ID);
+        assertThat(voteRepository.getUserVotesByDate(DATE)).containsExactlyInAnyOrder(
+                new UserVoteTo(USER_ID, RESTAURANT1_ID), new UserVoteTo(ADMIN_ID, RESTAURANT1_ID));
+        writer.flush();
+        assertThat(voteRepository.getUserVotesByDate(DATE)).hasSize(3);
+
+        // checkpointed voices are not replayed
+        deleteVotes();
+        newWriter(2);
+        assertThat(voteRepository.getUserVotesByDate(DATE)).isEmpty();
+    }
+
+    private JournalVoteWriter newWriter(int capacity) {
+        // no events: future date voices must not roll over today's tally
+        return new JournalVoteWriter(voteRepository, restaurantRepository, jdbcTemplate, transactionTemplate, event -> {
+        }, dir, capacity);
+    }
+}
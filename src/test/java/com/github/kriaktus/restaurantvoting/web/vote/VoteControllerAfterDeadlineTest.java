@@ -1,5 +1,6 @@
 package com.github.kriaktus.restaurantvoting.web.vote;
 
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -11,10 +12,13 @@ import javax.annotation.PostConstruct;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneOffset;
 
 import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT2_ID;
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT3_ID;
 import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.USER3_MAIL;
+import static com.github.kriaktus.restaurantvoting.testdata.VoteTestData.RESTAURANT_VOTES_TO_MATCHER;
 import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.DEADLINE_CHANGE_VOICE;
 import static com.github.kriaktus.restaurantvoting.web.vote.VoteController.REST_URL;
 
@@ -22,8 +26,36 @@ public class VoteControllerAfterDeadlineTest extends AbstractVoteControllerTest
 
     @PostConstruct
     private void setClock() {
-        Clock fixedClock = Clock.fixed(LocalDateTime.of(LocalDate.now(), DEADLINE_CHANGE_VOICE.plusHours(1)).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
-        ReflectionTestUtils.setField(unwrapVoteController(), "clock", fixedClock);
+        setClock(LocalDateTime.of(LocalDate.now(), DEADLINE_CHANGE_VOICE.plusHours(1)));
+    }
+
+    private void setClock(LocalDateTime dateTime) {
+        ReflectionTestUtils.setField(unwrapVoteController(), "clock", Clock.fixed(dateTime.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void getTodayResultsNotClosed() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/results").queryParam("date", LocalDate.now().toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void createAfterDeadlineIsCounted() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        setClock(LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.MIN));
+        try {
+            perform(MockMvcRequestBuilders.get(REST_URL + "/results").queryParam("date", LocalDate.now().toString()))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(
+                            new RestaurantVotesTo(RESTAURANT2_ID, 3), new RestaurantVotesTo(RESTAURANT3_ID, 1)));
+        } finally {
+            setClock();
+        }
     }
 
     @Test
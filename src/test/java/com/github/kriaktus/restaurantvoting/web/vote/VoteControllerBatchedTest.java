@@ -0,0 +1,148 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT2_ID;
+import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.*;
+import static com.github.kriaktus.restaurantvoting.testdata.VoteTestData.*;
+import static com.github.kriaktus.restaurantvoting.util.VoteUtil.toVoteTo;
+import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.DEADLINE_CHANGE_VOICE;
+import static com.github.kriaktus.restaurantvoting.web.vote.VoteController.REST_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "app.vote.writer=batched")
+public class VoteControllerBatchedTest extends AbstractVoteControllerTest {
+
+    @Autowired
+    private VoteWriter voteWriter;
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private VotedUsers votedUsers;
+
+    @PostConstruct
+    private void setClock() {
+        Clock fixedClock = Clock.fixed(LocalDateTime.of(LocalDate.now(), DEADLINE_CHANGE_VOICE.minusHours(1)).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        ReflectionTestUtils.setField(unwrapVoteController(), "clock", fixedClock);
+    }
+
+    //  batches are written outside the test transaction: restore today's voices for the other tests
+    @AfterTransaction
+    void restoreVotes() {
+        voteWriter.flush();
+        ReflectionTestUtils.setField(voteWriter, "dayVotes", null);
+        jdbcTemplate.update("DELETE FROM vote WHERE user_id=? AND voting_date=?", USER3_ID, LocalDate.now());
+        jdbcTemplate.update("UPDATE vote SET restaurant_id=? WHERE user_id=? AND voting_date=?", RESTAURANT2_ID, USER_ID, LocalDate.now());
+        votedUsers.rebuild();
+    }
+
+    @Test
+    void writerIsBatched() {
+        assertThat(voteWriter).isInstanceOf(BatchedVoteWriter.class);
+    }
+
+    //  as in a request, accepted voice event is delivered at once outside of a transaction
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = USER3_MAIL)
+    void create() throws Exception {
+        try {
+            assertCreated();
+        } finally {
+            restoreVotes();
+        }
+    }
+
+    private void assertCreated() throws Exception {
+        VoteTo expected = getNewVoteTo();
+        ResultActions resultActions = perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        VOTE_TO_MATCHER.assertMatch(VOTE_TO_MATCHER.readFromJson(resultActions), expected);
+        //  written or not yet, accepted voice is visible at once
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.restaurantId").value(RESTAURANT2_ID));
+        voteWriter.flush();
+        VoteTo actual = toVoteTo(voteRepository.getByUserIdAndDate(USER3_ID, LocalDate.now()).orElseThrow());
+        expected.setId(actual.id());
+        VOTE_TO_MATCHER.assertMatch(actual, expected);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void createVoteAlreadyExist() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = USER2_MAIL)
+    void createNotFound() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(NOT_FOUND)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void update() throws Exception {
+        perform(MockMvcRequestBuilders.put(REST_URL + "/today").queryParam("restaurantId", Integer.toString(RESTAURANT1_ID)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        voteWriter.flush();
+        VOTE_TO_MATCHER.assertMatch(toVoteTo(voteRepository.getByUserIdAndDate(USER_ID, LocalDate.now()).orElseThrow()), getUpdatedVoteTo());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getTodayAfterUpdateBeforeFlush() throws Exception {
+        //  the flusher can't write while the lock is held
+        ReentrantLock writeLock = (ReentrantLock) ReflectionTestUtils.getField(voteWriter, "writeLock");
+        writeLock.lock();
+        try {
+            perform(MockMvcRequestBuilders.put(REST_URL + "/today").queryParam("restaurantId", Integer.toString(RESTAURANT1_ID)))
+                    .andExpect(MockMvcResultMatchers.status().isNoContent());
+            assertThat(toVoteTo(voteRepository.getByUserIdAndDate(USER_ID, LocalDate.now()).orElseThrow()).getRestaurantId()).isEqualTo(RESTAURANT2_ID);
+            perform(MockMvcRequestBuilders.get(REST_URL + "/today"))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.restaurantId").value(RESTAURANT1_ID));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void updateVoteNotExist() throws Exception {
+        perform(MockMvcRequestBuilders.put(REST_URL + "/today").queryParam("restaurantId", Integer.toString(RESTAURANT1_ID)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+}
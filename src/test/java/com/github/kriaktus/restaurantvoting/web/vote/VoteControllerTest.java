@@ -1,16 +1,28 @@
 package com.github.kriaktus.restaurantvoting.web.vote;
 
 import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.RestaurantVotesTo;
+import com.github.kriaktus.restaurantvoting.to.VoteHistoryTo;
 import com.github.kriaktus.restaurantvoting.to.VoteTo;
+import com.github.kriaktus.restaurantvoting.util.JsonUtil;
+import com.github.kriaktus.restaurantvoting.web.IdempotentRequests;
+import com.github.kriaktus.restaurantvoting.web.StatementCounter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
 import java.time.Clock;
@@ -18,24 +30,50 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
 import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT2_ID;
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT3_ID;
 import static com.github.kriaktus.restaurantvoting.testdata.UserTestData.*;
 import static com.github.kriaktus.restaurantvoting.testdata.VoteTestData.*;
 import static com.github.kriaktus.restaurantvoting.util.VoteUtil.toVoteTo;
 import static com.github.kriaktus.restaurantvoting.util.validation.ValidationUtil.DEADLINE_CHANGE_VOICE;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_IDEMPOTENCY_KEY_REUSED;
+import static com.github.kriaktus.restaurantvoting.web.GlobalExceptionHandler.EXCEPTION_VOTE_ALREADY_EXIST;
 import static com.github.kriaktus.restaurantvoting.web.vote.VoteController.REST_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 
 public class VoteControllerTest extends AbstractVoteControllerTest {
 
     @Autowired
     private VoteRepository voteRepository;
+    @Autowired
+    private VoteTallyStream voteTallyStream;
+    @Autowired
+    private VoteArchiver voteArchiver;
+    @Autowired
+    private VoteWriter voteWriter;
+    @Autowired
+    private VoteTally voteTally;
+    @Autowired
+    private VotedUsers votedUsers;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private StatementCounter statementCounter;
 
     @PostConstruct
     private void setClock() {
-        Clock fixedClock = Clock.fixed(LocalDateTime.of(LocalDate.now(), DEADLINE_CHANGE_VOICE.minusHours(1)).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
-        ReflectionTestUtils.setField(unwrapVoteController(), "clock", fixedClock);
+        setClock(LocalDateTime.of(LocalDate.now(), DEADLINE_CHANGE_VOICE.minusHours(1)));
+    }
+
+    private void setClock(LocalDateTime dateTime) {
+        ReflectionTestUtils.setField(unwrapVoteController(), "clock", Clock.fixed(dateTime.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
     }
 
     @Test
@@ -56,6 +94,17 @@ public class VoteControllerTest extends AbstractVoteControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
     }
 
+    //  answered by the voted users bitmap
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void getTodayNotFoundWithoutQueries() throws Exception {
+        assertThat(votedUsers.covers(LocalDate.now())).isTrue();
+        statementCounter.reset();
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today"))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+        assertThat(statementCounter.get()).isZero();
+    }
+
     @Test
     @WithUserDetails(value = USER_MAIL)
     void getByDate() throws Exception {
@@ -67,6 +116,200 @@ public class VoteControllerTest extends AbstractVoteControllerTest {
                 .andExpect(VOTE_TO_MATCHER.contentJson(userYesterdayVoteTo));
     }
 
+    //  a day is past by the controller clock, not by the system one
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void getByDateArchivedByClock() throws Exception {
+        jdbcTemplate.update("INSERT INTO vote_archive (id, user_id, voting_date, restaurant_id) VALUES (?, ?, ?, ?)",
+                1_000_000, USER3_ID, LocalDate.now(), RESTAURANT1_ID);
+        setClock(LocalDateTime.of(LocalDate.now().plusDays(1), DEADLINE_CHANGE_VOICE));
+        try {
+            perform(MockMvcRequestBuilders.get(REST_URL + "/by-date")
+                    .param("date", LocalDate.now().format(DateTimeFormatter.ISO_DATE)))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.restaurantId").value(RESTAURANT1_ID));
+        } finally {
+            setClock();
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getHistory() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/history").param("size", "2"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").value(LocalDate.now().minusDays(1).toString()))
+                .andExpect(MockMvcResultMatchers.content().json(JsonUtil.writeValue(new VoteHistoryTo(userHistory.subList(0, 2), LocalDate.now().minusDays(1).toString())), true));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/history").param("size", "2")
+                .param("cursor", LocalDate.now().minusDays(1).toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").doesNotExist())
+                .andExpect(MockMvcResultMatchers.content().json(JsonUtil.writeValue(new VoteHistoryTo(userHistory.subList(2, 4), null)), true));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getHistoryArchived() throws Exception {
+        voteArchiver.archive();
+        perform(MockMvcRequestBuilders.get(REST_URL + "/history"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(JsonUtil.writeValue(new VoteHistoryTo(userHistory, null)), true));
+    }
+
+    @Test
+    void getHistoryUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/history"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getByDateArchived() throws Exception {
+        voteArchiver.archive();
+        assertThat(voteRepository.getByUserIdAndDate(USER_ID, LocalDate.now().minusDays(1))).isEmpty();
+        assertThat(voteRepository.getByUserIdAndDate(USER_ID, LocalDate.now())).isPresent();
+        perform(MockMvcRequestBuilders.get(REST_URL + "/by-date")
+                .param("date", LocalDate.now().minusDays(1).format(DateTimeFormatter.ISO_DATE)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(VOTE_TO_MATCHER.contentJson(userYesterdayVoteTo));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/results").queryParam("date", LocalDate.now().minusDays(1).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(yesterdayResults));
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void getTodayTally() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(todayTally));
+    }
+
+    //  the tally counts committed voices only: these tests commit and restore today's voices afterwards
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = USER3_MAIL)
+    void createChangesTally() throws Exception {
+        try {
+            perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT3_ID)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+            perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally"))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(
+                            new RestaurantVotesTo(RESTAURANT2_ID, 2), new RestaurantVotesTo(RESTAURANT3_ID, 2)));
+        } finally {
+            restoreTodayVotes();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = USER_MAIL)
+    void updateChangesTally() throws Exception {
+        try {
+            perform(MockMvcRequestBuilders.put(REST_URL + "/today").queryParam("restaurantId", Integer.toString(RESTAURANT1_ID)))
+                    .andExpect(MockMvcResultMatchers.status().isNoContent());
+            perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally"))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(new RestaurantVotesTo(RESTAURANT1_ID, 1),
+                            new RestaurantVotesTo(RESTAURANT2_ID, 1), new RestaurantVotesTo(RESTAURANT3_ID, 1)));
+        } finally {
+            restoreTodayVotes();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithUserDetails(value = USER3_MAIL)
+    void rolledBackVoteKeepsTally() throws Exception {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                voteWriter.create(USER3_ID, LocalDate.now(), RESTAURANT3_ID);
+                voteWriter.update(USER_ID, LocalDate.now(), RESTAURANT1_ID);
+                status.setRollbackOnly();
+            });
+            perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally"))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(todayTally));
+        } finally {
+            restoreTodayVotes();
+        }
+    }
+
+    private void restoreTodayVotes() {
+        jdbcTemplate.update("DELETE FROM vote WHERE user_id=? AND voting_date=?", USER3_ID, LocalDate.now());
+        jdbcTemplate.update("UPDATE vote SET restaurant_id=? WHERE user_id=? AND voting_date=?", RESTAURANT2_ID, USER_ID, LocalDate.now());
+        voteTally.rebuild();
+        votedUsers.rebuild();
+        // sends the pending changes of the restored voices now, not to a subscriber of another test
+        voteTallyStream.tick();
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getResults() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/results").queryParam("date", LocalDate.now().minusDays(1).toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(RESTAURANT_VOTES_TO_MATCHER.contentJson(yesterdayResults));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getResultsNotClosed() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/results").queryParam("date", LocalDate.now().toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    void getTodayTallyUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void streamTodayTally() throws Exception {
+        MvcResult result = perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally/stream"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        try {
+            assertThat(result.getResponse().getContentAsString())
+                    .isEqualTo("event:tally\ndata:" + JsonUtil.writeValue(todayTally) + "\n\n");
+
+            voteTallyStream.onVote(new VoteEvent(LocalDate.now(), USER_ID, RESTAURANT2_ID, RESTAURANT1_ID));
+            voteTallyStream.onVote(new VoteEvent(LocalDate.now(), USER2_ID, RESTAURANT2_ID, RESTAURANT1_ID));
+            voteTallyStream.tick();
+            //  changes are sent by sender threads
+            String change = "event:change\ndata:" + JsonUtil.writeValue(List.of(
+                    new RestaurantVotesTo(RESTAURANT2_ID, 2), new RestaurantVotesTo(RESTAURANT1_ID, 0))) + "\n\n";
+            for (int i = 0; i < 100 && !result.getResponse().getContentAsString().endsWith(change); i++) {
+                Thread.sleep(50);
+            }
+            assertThat(result.getResponse().getContentAsString()).endsWith(change);
+        } finally {
+            result.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    @Test
+    void streamTodayTallyUnAuth() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today/tally/stream"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
     @Test
     @WithUserDetails(value = USER3_MAIL)
     void create() throws Exception {
@@ -81,6 +324,35 @@ public class VoteControllerTest extends AbstractVoteControllerTest {
         VOTE_TO_MATCHER.assertMatch(toVoteTo(voteRepository.getByUserIdAndDate(USER3_ID, LocalDate.now()).get()), expected);
     }
 
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void createIdempotent() throws Exception {
+        String created = perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID))
+                .header(IdempotentRequests.HEADER, "create-idempotent"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        //  without the key this retry would be rejected as a second voice
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID))
+                .header(IdempotentRequests.HEADER, "create-idempotent"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, endsWith(REST_URL + "/today")))
+                .andExpect(MockMvcResultMatchers.content().string(created));
+    }
+
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void createIdempotencyKeyReused() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID))
+                .header(IdempotentRequests.HEADER, "create-reused"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT1_ID))
+                .header(IdempotentRequests.HEADER, "create-reused"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.content().string(containsString(EXCEPTION_IDEMPOTENCY_KEY_REUSED)));
+    }
+
     @Test
     @WithUserDetails(value = USER_MAIL)
     void createVoteAlreadyExist() throws Exception {
@@ -89,6 +361,32 @@ public class VoteControllerTest extends AbstractVoteControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
     }
 
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void createRejectedByVotedUsers() throws Exception {
+        votedUsers.onVote(new VoteEvent(LocalDate.now(), USER3_ID, null, RESTAURANT1_ID));
+        try {
+            perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID)))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                    .andExpect(MockMvcResultMatchers.content().string(containsString(EXCEPTION_VOTE_ALREADY_EXIST)));
+            assertThat(voteRepository.getByUserIdAndDate(USER3_ID, LocalDate.now())).isEmpty();
+        } finally {
+            votedUsers.rebuild();
+        }
+    }
+
+    //  a voice that bypassed the voted users check, as a concurrent one, is rejected by the unique key
+    @Test
+    @WithUserDetails(value = USER3_MAIL)
+    void createDuplicate() throws Exception {
+        jdbcTemplate.update("INSERT INTO vote (user_id, voting_date, restaurant_id) VALUES (?, ?, ?)", USER3_ID, LocalDate.now(), RESTAURANT1_ID);
+        perform(MockMvcRequestBuilders.post(REST_URL).queryParam("restaurantId", Integer.toString(RESTAURANT2_ID)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.content().string(containsString(EXCEPTION_VOTE_ALREADY_EXIST)));
+    }
+
     @Test
     @WithUserDetails(value = USER3_MAIL)
     void createNotFound() throws Exception {
@@ -0,0 +1,81 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteJournalTest {
+    private static final LocalDate DATE = LocalDate.of(2022, 1, 10);
+    private static final int USER_ID = 1;
+
+    @TempDir
+    Path dir;
+
+    //  appenders may fill slots out of order, replay follows the sequence numbers
+    @Test
+    void replayInSequenceOrder() throws Exception {
+        int threads = 8;
+        int appends = 500;
+        VoteJournal journal = new VoteJournal(dir, threads * appends);
+        Map<Long, Integer> appended = new ConcurrentSkipListMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < appends; i++) {
+                        int restaurantId = thread * appends + i;
+                        appended.put(journal.append(new VoteEvent(DATE, USER_ID, null, restaurantId)), restaurantId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(replayedRestaurants(new VoteJournal(dir, threads * appends))).containsExactlyElementsOf(appended.values());
+    }
+
+    @Test
+    void replayAcrossRotation() {
+        VoteJournal journal = new VoteJournal(dir, 10);
+        Map<Long, Integer> appended = new TreeMap<>();
+        appended.put(journal.append(new VoteEvent(DATE, USER_ID, null, 1)), 1);
+        journal.rotate();
+        appended.put(journal.append(new VoteEvent(DATE, USER_ID, null, 2)), 2);
+        journal.close();
+        assertThat(appended.keySet()).doesNotContain(0L);
+        assertThat(replayedRestaurants(new VoteJournal(dir, 10))).containsExactly(1, 2);
+    }
+
+    @Test
+    void appendToFull() {
+        VoteJournal journal = new VoteJournal(dir, 1);
+        assertThat(journal.append(new VoteEvent(DATE, USER_ID, null, 1))).isPositive();
+        assertThat(journal.append(new VoteEvent(DATE, USER_ID, null, 2))).isZero();
+    }
+
+    private static List<Integer> replayedRestaurants(VoteJournal journal) {
+        return journal.replay().stream().map(VoteEvent::getRestaurantId).toList();
+    }
+}
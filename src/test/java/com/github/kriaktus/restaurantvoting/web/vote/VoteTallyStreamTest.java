@@ -0,0 +1,126 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteTallyStreamTest {
+    private static final int MAX_PENDING = 2;
+    private static final long SEND_TIMEOUT_MS = 200;
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final VoteTally voteTally = new VoteTally(Mockito.mock(VoteRepository.class), clock);
+    //  ticks are driven by the test
+    private VoteTallyStream stream = newStream(60_000, 2);
+    private final AtomicInteger userId = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void subscriberFallenBehindIsDropped() throws InterruptedException {
+        StalledEmitter stalled = new StalledEmitter();
+        stream.subscribe(stalled);
+        RecordingEmitter fast = new RecordingEmitter();
+        stream.subscribe(fast);
+
+        voteAndTick();
+        assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        //  the stalled subscriber hangs on the first change, then queues up to MAX_PENDING ones
+        for (int i = 0; i < MAX_PENDING; i++) {
+            voteAndTick();
+            assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(stream.subscribers()).isEqualTo(2);
+        }
+        voteAndTick();
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(stream.subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void stalledSendIsEvicted() throws InterruptedException {
+        stream.shutdown();
+        //  the stalled subscriber holds the only sender thread
+        stream = newStream(SEND_TIMEOUT_MS, 1);
+        StalledEmitter stalled = new StalledEmitter();
+        stream.subscribe(stalled);
+        RecordingEmitter waiting = new RecordingEmitter();
+        stream.subscribe(waiting);
+
+        voteAndTick();
+        assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(SEND_TIMEOUT_MS);
+        stream.tick();
+        assertThat(stalled.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stream.subscribers()).isEqualTo(1);
+        assertThat(waiting.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void subscriberFailedToSendIsDropped() throws InterruptedException {
+        RecordingEmitter failing = new RecordingEmitter();
+        stream.subscribe(failing);
+        assertThat(failing.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        failing.disconnected = true;
+        voteAndTick();
+        for (int i = 0; i < 100 && stream.subscribers() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(stream.subscribers()).isZero();
+    }
+
+    private void voteAndTick() {
+        stream.onVote(new VoteEvent(LocalDate.now(clock), userId.incrementAndGet(), null, RESTAURANT1_ID));
+        stream.tick();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private volatile boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) throw new IOException("Broken pipe");
+            sent.add(builder);
+        }
+    }
+
+    private VoteTallyStream newStream(long sendTimeoutMs, int senderThreads) {
+        return new VoteTallyStream(voteTally, clock, 3_600_000, 3_600_000, 60_000, sendTimeoutMs, senderThreads, MAX_PENDING);
+    }
+
+    //  passes the initial tally, then hangs as a client that stopped reading until the send is interrupted
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final AtomicInteger sends = new AtomicInteger();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (sends.getAndIncrement() == 0) return;
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }
+    }
+}
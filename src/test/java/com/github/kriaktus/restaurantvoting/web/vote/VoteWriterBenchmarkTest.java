@@ -0,0 +1,145 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.RestaurantRepository;
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Voices throughput of per-request transactions vs write-behind group commit.
+ * <p>
+ * Run with {@code mvn test -P benchmark}
+ */
+@Tag("benchmark")
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VoteWriterBenchmarkTest {
+    private static final int USERS = 5000;
+    private static final int THREADS = 16;
+    private static final String EMAIL_PREFIX = "benchmark";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private VoteWriter transactionalVoteWriter;
+
+    private List<Integer> userIds;
+
+    @TempDir
+    Path journalDir;
+
+    @BeforeAll
+    void createUsers() {
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password) VALUES (?, ?, '{noop}password')",
+                IntStream.range(0, USERS).mapToObj(i -> new Object[]{"Benchmark" + i, EMAIL_PREFIX + i + "@gmail.com"}).toList());
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ?", Integer.class, EMAIL_PREFIX + "%");
+    }
+
+    @AfterAll
+    void deleteUsers() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", EMAIL_PREFIX + "%");
+    }
+
+    @Test
+    void throughput() throws InterruptedException {
+        assertThat(transactionalVoteWriter).isInstanceOf(TransactionalVoteWriter.class);
+        LocalDate transactionalDate = LocalDate.now().plusDays(100);
+        double transactional = votesPerSecond(transactionalVoteWriter, transactionalDate);
+
+        BatchedVoteWriter batchedVoteWriter = new BatchedVoteWriter(voteRepository, restaurantRepository,
+                jdbcTemplate, transactionTemplate, eventPublisher, 500, 50, 100_000);
+        LocalDate batchedDate = LocalDate.now().plusDays(101);
+        double batched;
+        try {
+            batched = votesPerSecond(batchedVoteWriter, batchedDate);
+        } finally {
+            batchedVoteWriter.shutdown();
+        }
+
+        JournalVoteWriter journalVoteWriter = new JournalVoteWriter(voteRepository, restaurantRepository,
+                jdbcTemplate, transactionTemplate, eventPublisher, journalDir, USERS);
+        LocalDate journalDate = LocalDate.now().plusDays(102);
+        double journal;
+        try {
+            journal = votesPerSecond(journalVoteWriter, journalDate);
+        } finally {
+            journalVoteWriter.shutdown();
+        }
+
+        log.info(String.format("Voices per second, %d users, %d threads: transactional %.0f, batched %.0f (x%.1f), journal %.0f (x%.1f)",
+                USERS, THREADS, transactional, batched, batched / transactional, journal, journal / transactional));
+        assertThat(countVotes(transactionalDate)).isEqualTo(USERS);
+        assertThat(countVotes(batchedDate)).isEqualTo(USERS);
+        assertThat(countVotes(journalDate)).isEqualTo(USERS);
+    }
+
+    @Test
+    void journalAppendRate() throws InterruptedException {
+        int records = 1_000_000;
+        VoteJournal journal = new VoteJournal(journalDir.resolve("append"), records);
+        VoteEvent vote = new VoteEvent(LocalDate.now(), 1, null, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                while (journal.append(vote) > 0) ;
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        long elapsed = System.nanoTime() - start;
+        journal.force();
+        log.info(String.format("Journal appends per second, %d threads: %.0f", THREADS, records * 1e9 / elapsed));
+        assertThat(journal.replay()).hasSize(records);
+        journal.close();
+    }
+
+    private double votesPerSecond(VoteWriter voteWriter, LocalDate date) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < userIds.size(); i++) {
+            int userId = userIds.get(i);
+            int restaurantId = i % 3 + 1;
+            executor.execute(() -> voteWriter.create(userId, date, restaurantId));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        voteWriter.flush();
+        return USERS * 1e9 / (System.nanoTime() - start);
+    }
+
+    private Integer countVotes(LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vote WHERE voting_date=?", Integer.class, date);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.kriaktus.restaurantvoting.web.vote;
+
+import com.github.kriaktus.restaurantvoting.repository.VoteRepository;
+import com.github.kriaktus.restaurantvoting.to.UserVoteTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.github.kriaktus.restaurantvoting.testdata.RestaurantTestData.RESTAURANT1_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VotedUsersTest {
+    private static final LocalDate DAY = LocalDate.of(2022, 1, 10);
+    private static final LocalDate NEXT_DAY = DAY.plusDays(1);
+
+    private final VoteRepository voteRepository = Mockito.mock(VoteRepository.class);
+    private final Clock clock = Mockito.mock(Clock.class);
+    private final VotedUsers votedUsers = new VotedUsers(voteRepository, clock);
+
+    @BeforeEach
+    void rebuild() {
+        Mockito.when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setDate(DAY);
+        Mockito.when(voteRepository.getUserVotesByDate(DAY)).thenReturn(List.of(new UserVoteTo(1, RESTAURANT1_ID)));
+        votedUsers.rebuild();
+    }
+
+    @Test
+    void rebuilt() {
+        assertThat(votedUsers.covers(DAY)).isTrue();
+        assertThat(votedUsers.hasVoted(DAY, 1)).isTrue();
+        assertThat(votedUsers.hasVoted(DAY, 2)).isFalse();
+    }
+
+    //  a voice committed while VOTE is read is set into the bitmap being loaded
+    @Test
+    void voteDuringRebuild() {
+        Mockito.when(voteRepository.getUserVotesByDate(DAY)).thenAnswer(invocation -> {
+            assertThat(votedUsers.covers(DAY)).isFalse();
+            votedUsers.onVote(new VoteEvent(DAY, 2, null, RESTAURANT1_ID));
+            return List.of(new UserVoteTo(1, RESTAURANT1_ID));
+        });
+        votedUsers.rebuild();
+        assertThat(votedUsers.covers(DAY)).isTrue();
+        assertThat(votedUsers.hasVoted(DAY, 1)).isTrue();
+        assertThat(votedUsers.hasVoted(DAY, 2)).isTrue();
+    }
+
+    @Test
+    void onVote() {
+        int farUserId = 1 << 20;
+        votedUsers.onVote(new VoteEvent(DAY, farUserId, null, RESTAURANT1_ID));
+        assertThat(votedUsers.hasVoted(DAY, farUserId)).isTrue();
+        assertThat(votedUsers.hasVoted(DAY, farUserId + 1)).isFalse();
+        assertThat(votedUsers.hasVoted(DAY, farUserId - 64)).isFalse();
+    }
+
+    @Test
+    void dayRollover() {
+        setDate(NEXT_DAY);
+        assertThat(votedUsers.covers(NEXT_DAY)).isTrue();
+        assertThat(votedUsers.hasVoted(NEXT_DAY, 1)).isFalse();
+        assertThat(votedUsers.covers(DAY)).isFalse();
+
+        //  a late event of the previous day doesn't leak into the new one
+        votedUsers.onVote(new VoteEvent(DAY, 2, null, RESTAURANT1_ID));
+        assertThat(votedUsers.hasVoted(NEXT_DAY, 2)).isFalse();
+        votedUsers.onVote(new VoteEvent(NEXT_DAY, 3, null, RESTAURANT1_ID));
+        assertThat(votedUsers.hasVoted(NEXT_DAY, 3)).isTrue();
+    }
+
+    @Test
+    void futureDateNotCovered() {
+        assertThat(votedUsers.covers(NEXT_DAY)).isFalse();
+        assertThat(votedUsers.covers(DAY)).isTrue();
+    }
+
+    private void setDate(LocalDate date) {
+        Mockito.when(clock.instant()).thenReturn(date.atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+}